@@ -1,12 +0,0 @@
-/**
- * Represents the stocks a user owns.
- */
-public class StockHolding {
-    public int quantity;
-    public double avgPrice;
-
-    public StockHolding(int quantity, double avgPrice) {
-        this.quantity = quantity;
-        this.avgPrice = avgPrice;
-    }
-}
\ No newline at end of file
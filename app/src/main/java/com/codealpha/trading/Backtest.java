@@ -0,0 +1,373 @@
+package com.codealpha.trading;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs a {@link Strategy} against a seeded random-walk market or a recorded
+ * {@link TickTape} as fast as the CPU allows: the market is ticked inline on
+ * the calling thread, the portfolio lives {@link Portfolio#inMemory in
+ * memory} and nothing is printed. Fills are stamped with a simulated clock
+ * that advances a fixed step per tick, so a run with the same seed (or tape),
+ * strategy and settings gives the same final state and P&L series bit for
+ * bit. Independent seeds run in parallel for Monte Carlo sweeps.
+ */
+public class Backtest {
+    public static final long START_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    public static final long TICK_MILLIS = 1000;
+
+    private final Supplier<Strategy> strategy;
+    private final Supplier<PriceModel> model;
+    private final long cashCents;
+    private final long sampleEvery;
+
+    /**
+     * @param strategy    creates the strategy for each run
+     * @param cash        starting cash of every run
+     * @param sampleEvery ticks between points of the P&L series
+     */
+    public Backtest(Supplier<Strategy> strategy, double cash, long sampleEvery) {
+        this(strategy, PriceModels.named("uniform"), cash, sampleEvery);
+    }
+
+    /**
+     * @param model creates the price model of each random-walk run
+     */
+    public Backtest(Supplier<Strategy> strategy, Supplier<PriceModel> model, double cash, long sampleEvery) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("Sample interval must be positive, got " + sampleEvery);
+        }
+        this.strategy = strategy;
+        this.model = model;
+        this.cashCents = Money.toCents(cash);
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Runs {@code ticks} ticks of a random-walk market seeded with
+     * {@code seed}: the default listings when {@code universe} is 0, else
+     * that many synthetic instruments. When {@code tape} is not
+     * {@code null} the ticks are also recorded there.
+     */
+    public Result run(long seed, int universe, long ticks, Path tape) throws IOException {
+        Market market = universe == 0 ? new Market(seed) : Market.synthetic(universe, seed);
+        market.setPriceModel(model.get());
+        if (tape == null) {
+            return run(seed, market, null, ticks);
+        }
+        try (TickTape.Writer writer = TickTape.record(market, tape)) {
+            market.addListener(writer);
+            return run(seed, market, null, ticks);
+        }
+    }
+
+    /**
+     * Replays every tick of a recorded tape.
+     */
+    public Result replay(Path tape) throws IOException {
+        try (TickTape.Reader reader = TickTape.open(tape)) {
+            return run(-1, reader.newMarket(), reader, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Runs {@code runs} random-walk backtests with seeds {@code firstSeed},
+     * {@code firstSeed + 1}, ... on {@code threads} threads and returns the
+     * results in seed order.
+     */
+    public List<Result> sweep(long firstSeed, int runs, int universe, long ticks, int threads)
+            throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, runs)));
+        try {
+            List<Future<Result>> futures = new ArrayList<>(runs);
+            for (int i = 0; i < runs; i++) {
+                long seed = firstSeed + i;
+                futures.add(pool.submit(() -> run(seed, universe, ticks, null)));
+            }
+            List<Result> results = new ArrayList<>(runs);
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IllegalStateException("Backtest run failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Result run(long seed, Market market, TickTape.Reader tape, long ticks) throws IOException {
+        long[] now = {START_MILLIS};
+        Portfolio portfolio = Portfolio.inMemory(Money.toDollars(cashCents), () -> now[0]);
+        portfolio.attach(market);
+        Strategy strategy = this.strategy.get();
+        strategy.start(market, portfolio);
+
+        double[] prices = tape == null ? null : new double[market.size()];
+        long[] pnl = new long[16];
+        int samples = 0;
+        long tick = 0;
+        long start = System.nanoTime();
+        for (; tick < ticks; tick++) {
+            if (tape == null) {
+                market.updateMarket();
+            } else if (tape.next(prices)) {
+                market.replayTick(prices);
+            } else {
+                break;
+            }
+            now[0] += TICK_MILLIS;
+            strategy.onTick(tick, market, portfolio);
+            if ((tick + 1) % sampleEvery == 0) {
+                if (samples == pnl.length) {
+                    pnl = Arrays.copyOf(pnl, samples * 2);
+                }
+                pnl[samples++] = portfolio.getTotalValueCents(market) - cashCents;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long realized = 0;
+        for (int id = 0; id < market.size(); id++) {
+            TickerStats stats = portfolio.getTickerStats(market.getTicker(id));
+            if (stats != null) {
+                realized += stats.realizedPnlCents;
+            }
+        }
+        Result result = new Result(seed, tick, portfolio.getCashCents(), portfolio.getMarketValueCents(), realized,
+                portfolio.getTransactions().size(), portfolio.getHoldings(), Arrays.copyOf(pnl, samples),
+                sampleEvery, elapsed);
+        portfolio.close();
+        return result;
+    }
+
+    /**
+     * Final state and P&L series of one run. Amounts are in cents.
+     */
+    public static class Result {
+        public final long seed; // -1 for a replayed tape
+        public final long ticks;
+        public final long cashCents;
+        public final long marketValueCents;
+        public final long realizedPnlCents;
+        public final long trades;
+        public final SortedMap<String, StockHolding> holdings;
+        public final long[] pnl; // Total value minus starting cash, every sampleEvery ticks
+        public final long sampleEvery;
+        public final long elapsedNanos;
+
+        Result(long seed, long ticks, long cashCents, long marketValueCents, long realizedPnlCents, long trades,
+                SortedMap<String, StockHolding> holdings, long[] pnl, long sampleEvery, long elapsedNanos) {
+            this.seed = seed;
+            this.ticks = ticks;
+            this.cashCents = cashCents;
+            this.marketValueCents = marketValueCents;
+            this.realizedPnlCents = realizedPnlCents;
+            this.trades = trades;
+            this.holdings = holdings;
+            this.pnl = pnl;
+            this.sampleEvery = sampleEvery;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getTotalValueCents() {
+            return cashCents + marketValueCents;
+        }
+
+        public double getTotalValue() {
+            return Money.toDollars(getTotalValueCents());
+        }
+
+        public double getTicksPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : ticks * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * 64-bit FNV-1a hash of the final state and P&L series. Two runs are
+         * identical to the cent when their digests match.
+         */
+        public String digest() {
+            long hash = 0xcbf29ce484222325L;
+            hash = mix(hash, ticks);
+            hash = mix(hash, cashCents);
+            hash = mix(hash, marketValueCents);
+            hash = mix(hash, trades);
+            for (Map.Entry<String, StockHolding> entry : holdings.entrySet()) {
+                hash = mix(hash, entry.getKey().hashCode());
+                hash = mix(hash, entry.getValue().quantity);
+                hash = mix(hash, entry.getValue().costCents);
+            }
+            for (long value : pnl) {
+                hash = mix(hash, value);
+            }
+            return String.format("%016x", hash);
+        }
+
+        private static long mix(long hash, long value) {
+            for (int i = 0; i < 8; i++) {
+                hash = (hash ^ (value & 0xFF)) * 0x100000001b3L;
+                value >>>= 8;
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s%,d ticks: value $%,.2f (cash $%,.2f), realized P&L $%,.2f, %,d trades, "
+                    + "%,.0f ticks/s, digest %s", seed < 0 ? "" : "seed " + seed + ", ", ticks, getTotalValue(),
+                    Money.toDollars(cashCents), Money.toDollars(realizedPnlCents), trades, getTicksPerSecond(),
+                    digest());
+        }
+    }
+
+    /**
+     * Command line entry point, reached with {@code --backtest}. Options:
+     * {@code --strategy hold|momentum},
+     * {@code --model uniform|gbm|meanrevert|jump}, {@code --ticks N}, {@code --seed S},
+     * {@code --universe N}, {@code --runs N}, {@code --threads N},
+     * {@code --cash AMOUNT}, {@code --samples N}, {@code --record FILE} and
+     * {@code --replay FILE}.
+     */
+    public static void main(String[] args) {
+        String strategyName = "momentum";
+        String modelName = "uniform";
+        long ticks = 1_000_000;
+        long seed = 42;
+        int universe = 0;
+        int runs = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double cash = 100000.00;
+        long samples = 1000;
+        Path record = null;
+        Path replay = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--strategy":
+                        strategyName = value;
+                        break;
+                    case "--model":
+                        modelName = value;
+                        break;
+                    case "--ticks":
+                        ticks = Long.parseLong(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--universe":
+                        universe = Integer.parseInt(value);
+                        break;
+                    case "--runs":
+                        runs = Integer.parseInt(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--cash":
+                        cash = Double.parseDouble(value);
+                        break;
+                    case "--samples":
+                        samples = Long.parseLong(value);
+                        break;
+                    case "--record":
+                        record = Paths.get(value);
+                        break;
+                    case "--replay":
+                        replay = Paths.get(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (record != null && (runs != 1 || replay != null)) {
+                throw new IllegalArgumentException("--record needs a single random-walk run");
+            }
+
+            long sampleEvery = Math.max(1, ticks / Math.max(1, samples));
+            if (replay != null) {
+                try (TickTape.Reader reader = TickTape.open(replay)) {
+                    sampleEvery = Math.max(1, reader.getTickCount() / Math.max(1, samples));
+                }
+            }
+            Backtest backtest = new Backtest(Strategies.named(strategyName), PriceModels.named(modelName), cash,
+                    sampleEvery);
+            if (replay != null) {
+                System.out.println(backtest.replay(replay));
+            } else if (runs == 1) {
+                System.out.println(backtest.run(seed, universe, ticks, record));
+                if (record != null) {
+                    System.out.println(TradingApp.ANSI_GREEN + "✔ Ticks recorded to " + record + "."
+                            + TradingApp.ANSI_RESET);
+                }
+            } else {
+                long start = System.nanoTime();
+                List<Result> results = backtest.sweep(seed, runs, universe, ticks, threads);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                printSweep(results, seconds);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error: " + e.getMessage() + TradingApp.ANSI_RESET);
+        } catch (IOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error running backtest: " + e.getMessage()
+                    + TradingApp.ANSI_RESET);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void printSweep(List<Result> results, double seconds) {
+        double[] values = new double[results.size()];
+        long ticks = 0;
+        for (int i = 0; i < values.length; i++) {
+            Result result = results.get(i);
+            System.out.println(result);
+            values[i] = result.getTotalValue();
+            ticks += result.ticks;
+        }
+        Arrays.sort(values);
+        double mean = 0;
+        for (double value : values) {
+            mean += value;
+        }
+        mean /= values.length;
+        double variance = 0;
+        for (double value : values) {
+            variance += (value - mean) * (value - mean);
+        }
+        double stdDev = Math.sqrt(variance / values.length);
+        System.out.println(TradingApp.ANSI_CYAN + String.format(
+                "%d runs: final value mean $%,.2f, std dev $%,.2f, min $%,.2f, p5 $%,.2f, median $%,.2f, "
+                        + "p95 $%,.2f, max $%,.2f",
+                values.length, mean, stdDev, values[0], percentile(values, 0.05), percentile(values, 0.5),
+                percentile(values, 0.95), values[values.length - 1]) + TradingApp.ANSI_RESET);
+        System.out.printf(TradingApp.ANSI_CYAN + "%,d ticks in %.2f s (%,.0f ticks/s)%n" + TradingApp.ANSI_RESET,
+                ticks, seconds, ticks / seconds);
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static double percentile(double[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
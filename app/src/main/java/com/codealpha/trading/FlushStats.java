@@ -0,0 +1,51 @@
+package com.codealpha.trading;
+
+/**
+ * Running flush latency and batch size figures for a {@link PortfolioStore}.
+ */
+public class FlushStats {
+    private long flushes;
+    private long records;
+    private int lastBatchSize;
+    private int maxBatchSize;
+    private long lastFlushNanos;
+    private long maxFlushNanos;
+    private long totalFlushNanos;
+
+    synchronized void record(int batchSize, long flushNanos) {
+        flushes++;
+        records += batchSize;
+        lastBatchSize = batchSize;
+        maxBatchSize = Math.max(maxBatchSize, batchSize);
+        lastFlushNanos = flushNanos;
+        maxFlushNanos = Math.max(maxFlushNanos, flushNanos);
+        totalFlushNanos += flushNanos;
+    }
+
+    public synchronized long getFlushes() {
+        return flushes;
+    }
+
+    public synchronized double getAverageBatchSize() {
+        return flushes == 0 ? 0.0 : (double) records / flushes;
+    }
+
+    public synchronized int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public synchronized double getAverageFlushMillis() {
+        return flushes == 0 ? 0.0 : totalFlushNanos / 1e6 / flushes;
+    }
+
+    public synchronized double getMaxFlushMillis() {
+        return maxFlushNanos / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d flushes, batch avg %.1f / last %d / max %d, latency avg %.3f ms / last %.3f ms / max %.3f ms",
+                flushes, getAverageBatchSize(), lastBatchSize, maxBatchSize, getAverageFlushMillis(),
+                lastFlushNanos / 1e6, getMaxFlushMillis());
+    }
+}
@@ -0,0 +1,139 @@
+package com.codealpha.trading;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram: log-linear
+ * buckets, 64 per power of two, so any recorded nanosecond value from 0 up
+ * to {@code Long.MAX_VALUE} is kept to within 1.6% with a fixed 29 KB of
+ * counts. Recording is one bucket increment plus a sum and, rarely, a max
+ * update, and is safe from any number of threads; percentiles are read from
+ * a {@link Snapshot} of the buckets.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records the time since {@code startNanos}, a {@link Metrics#start()}
+     * reading. Does nothing when metrics are disabled.
+     */
+    public void record(long startNanos) {
+        if (Metrics.ENABLED) {
+            recordNanos(System.nanoTime() - startNanos);
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        if (nanos < 0) {
+            nanos = 0; // nanoTime is monotonic, but be safe against misuse
+        }
+        counts.incrementAndGet(bucketOf(nanos));
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    /**
+     * Copies the current counts. Records made meanwhile may or may not be
+     * included; each is either fully counted or not at all.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, totalNanos.sum(), maxNanos.get());
+    }
+
+    static int bucketOf(long nanos) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(nanos) - SUB_BITS - 1);
+        return (shift << SUB_BITS) + (int) (nanos >>> shift);
+    }
+
+    // Largest value that lands in the bucket
+    static long highestIn(int bucket) {
+        if (bucket < 2 * SUB_COUNT) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long lowest = (long) (bucket - (shift << SUB_BITS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Counts of a histogram at one moment.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : (double) totalNanos / count;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Nearest-rank percentile ({@code p} from 0 to 1), as the highest
+         * value of its bucket but never above the recorded maximum; 0 when
+         * empty.
+         */
+        public long getPercentileNanos(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestIn(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+}
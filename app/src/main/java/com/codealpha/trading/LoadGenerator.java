@@ -0,0 +1,338 @@
+package com.codealpha.trading;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator for {@link TradingServer}: {@code clients}
+ * concurrent clients each send a request, wait for the answer and send the
+ * next, drawing operations from a weighted mix, for a warm-up period and then
+ * a measured one. Reports requests per second and latency percentiles per
+ * operation. Clients run on virtual threads when the JVM has them.
+ */
+public class LoadGenerator {
+
+    /**
+     * The operations a client can draw. Trades are one share.
+     */
+    enum Operation {
+        QUOTE, PORTFOLIO, HISTORY, BUY, SELL
+    }
+
+    private final HttpClient client;
+    private final URI base;
+    private final String ticker;
+    private final Operation[] mix; // One entry per unit of weight, drawn uniformly
+
+    /**
+     * @param weights weight of each {@link Operation}, indexed by ordinal
+     */
+    public LoadGenerator(URI base, String ticker, int[] weights) {
+        List<Operation> mix = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            for (int i = 0; i < weights[operation.ordinal()]; i++) {
+                mix.add(operation);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix needs a positive weight");
+        }
+        this.mix = mix.toArray(new Operation[0]);
+        this.base = base;
+        this.ticker = ticker;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    /**
+     * Runs {@code clients} clients for {@code warmupMillis} unrecorded and
+     * then {@code measureMillis} recorded, and returns what was recorded.
+     */
+    public Report run(int clients, long warmupMillis, long measureMillis) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupMillis * 1_000_000L;
+        long measureTo = measureFrom + measureMillis * 1_000_000L;
+        ExecutorService pool = TradingServer.newRequestExecutor(clients);
+        try {
+            List<Future<Recorder>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                long seed = i;
+                futures.add(pool.submit(() -> drive(new SplittableRandom(seed), measureFrom, measureTo)));
+            }
+            Recorder total = new Recorder();
+            for (Future<Recorder> future : futures) {
+                try {
+                    total.addAll(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load client failed", e.getCause());
+                }
+            }
+            return new Report(total, (measureTo - measureFrom) / 1e9, clients);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Recorder drive(SplittableRandom random, long measureFrom, long measureTo) {
+        Recorder recorder = new Recorder();
+        HttpRequest[] requests = new HttpRequest[Operation.values().length];
+        for (Operation operation : Operation.values()) {
+            requests[operation.ordinal()] = request(operation);
+        }
+        while (true) {
+            Operation operation = mix[random.nextInt(mix.length)];
+            long sent = System.nanoTime();
+            if (sent >= measureTo) {
+                return recorder;
+            }
+            int status;
+            try {
+                status = client.send(requests[operation.ordinal()], HttpResponse.BodyHandlers.discarding())
+                        .statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return recorder;
+            }
+            if (sent >= measureFrom) {
+                recorder.record(operation, System.nanoTime() - sent, status);
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation) {
+        switch (operation) {
+            case QUOTE:
+                return HttpRequest.newBuilder(base.resolve("/quote?ticker=" + ticker)).GET().build();
+            case PORTFOLIO:
+                return HttpRequest.newBuilder(base.resolve("/portfolio")).GET().build();
+            case HISTORY:
+                return HttpRequest.newBuilder(base.resolve("/history?limit=20")).GET().build();
+            default:
+                String body = "{\"ticker\":\"" + ticker + "\",\"quantity\":1}";
+                return HttpRequest.newBuilder(base.resolve(operation == Operation.BUY ? "/buy" : "/sell"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+    }
+
+    /**
+     * Latencies and outcomes of one client, or of all of them once merged.
+     */
+    static final class Recorder {
+        final long[][] latencies = new long[Operation.values().length][];
+        final int[] counts = new int[Operation.values().length];
+        final int[] rejected = new int[Operation.values().length]; // 409: no cash or no stock
+        final int[] errors = new int[Operation.values().length]; // Other non-2xx or I/O failures
+
+        Recorder() {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new long[1024];
+            }
+        }
+
+        void record(Operation operation, long nanos, int status) {
+            int op = operation.ordinal();
+            if (counts[op] == latencies[op].length) {
+                latencies[op] = Arrays.copyOf(latencies[op], counts[op] * 2);
+            }
+            latencies[op][counts[op]++] = nanos;
+            if (status == 409) {
+                rejected[op]++;
+            } else if (status < 200 || status >= 300) {
+                errors[op]++;
+            }
+        }
+
+        void addAll(Recorder other) {
+            for (int op = 0; op < latencies.length; op++) {
+                if (counts[op] + other.counts[op] > latencies[op].length) {
+                    latencies[op] = Arrays.copyOf(latencies[op], counts[op] + other.counts[op]);
+                }
+                System.arraycopy(other.latencies[op], 0, latencies[op], counts[op], other.counts[op]);
+                counts[op] += other.counts[op];
+                rejected[op] += other.rejected[op];
+                errors[op] += other.errors[op];
+            }
+        }
+    }
+
+    /**
+     * Throughput and latency percentiles of a measured run.
+     */
+    public static class Report {
+        private final Recorder recorder;
+        private final double seconds;
+        private final int clients;
+
+        Report(Recorder recorder, double seconds, int clients) {
+            this.recorder = recorder;
+            this.seconds = seconds;
+            this.clients = clients;
+            for (int op = 0; op < recorder.latencies.length; op++) {
+                Arrays.sort(recorder.latencies[op], 0, recorder.counts[op]);
+            }
+        }
+
+        public long getRequests() {
+            long requests = 0;
+            for (int count : recorder.counts) {
+                requests += count;
+            }
+            return requests;
+        }
+
+        public double getRequestsPerSecond() {
+            return getRequests() / seconds;
+        }
+
+        /**
+         * Nearest-rank latency percentile over all operations, in
+         * nanoseconds, or 0 when nothing was recorded.
+         */
+        public long getLatencyNanos(double p) {
+            long[] all = new long[(int) getRequests()];
+            int size = 0;
+            for (int op = 0; op < recorder.latencies.length; op++) {
+                System.arraycopy(recorder.latencies[op], 0, all, size, recorder.counts[op]);
+                size += recorder.counts[op];
+            }
+            Arrays.sort(all);
+            return percentile(all, size, p);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(
+                    "%-10s %10s %10s %9s %9s %9s %9s %9s %9s%n", "Operation", "Requests", "Req/s", "p50 ms",
+                    "p90 ms", "p99 ms", "p99.9 ms", "Rejected", "Errors"));
+            long rejected = 0;
+            long errors = 0;
+            for (Operation operation : Operation.values()) {
+                int op = operation.ordinal();
+                int count = recorder.counts[op];
+                if (count == 0) {
+                    continue;
+                }
+                long[] sorted = recorder.latencies[op];
+                text.append(String.format("%-10s %,10d %,10.0f %9.3f %9.3f %9.3f %9.3f %,9d %,9d%n",
+                        operation.name().toLowerCase(), count, count / seconds, millis(percentile(sorted, count, 0.5)),
+                        millis(percentile(sorted, count, 0.9)), millis(percentile(sorted, count, 0.99)),
+                        millis(percentile(sorted, count, 0.999)), recorder.rejected[op], recorder.errors[op]));
+                rejected += recorder.rejected[op];
+                errors += recorder.errors[op];
+            }
+            text.append(String.format("%-10s %,10d %,10.0f %9.3f %9.3f %9.3f %9.3f %,9d %,9d%n", "all",
+                    getRequests(), getRequestsPerSecond(), millis(getLatencyNanos(0.5)), millis(getLatencyNanos(0.9)),
+                    millis(getLatencyNanos(0.99)), millis(getLatencyNanos(0.999)), rejected, errors));
+            text.append(String.format("%d clients over %.1f s", clients, seconds));
+            return text.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+
+        // Nearest-rank percentile of the first size sorted values
+        private static long percentile(long[] sorted, int size, double p) {
+            if (size == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * size);
+            return sorted[Math.max(0, Math.min(size - 1, rank - 1))];
+        }
+    }
+
+    /**
+     * Command line entry point, reached with {@code --load}. Options:
+     * {@code --url URL} (default {@code http://127.0.0.1:8080}),
+     * {@code --clients N}, {@code --seconds N}, {@code --warmup N},
+     * {@code --ticker T} and
+     * {@code --mix quote=70,portfolio=10,history=0,buy=10,sell=10}
+     * (relative weights; operations left out get 0).
+     */
+    public static void main(String[] args) {
+        String url = "http://127.0.0.1:8080";
+        int clients = 32;
+        long seconds = 10;
+        long warmup = 2;
+        String ticker = "AAPL";
+        int[] weights = {70, 10, 0, 10, 10};
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--url":
+                        url = value;
+                        break;
+                    case "--clients":
+                        clients = Integer.parseInt(value);
+                        break;
+                    case "--seconds":
+                        seconds = Long.parseLong(value);
+                        break;
+                    case "--warmup":
+                        warmup = Long.parseLong(value);
+                        break;
+                    case "--ticker":
+                        ticker = value.trim().toUpperCase();
+                        break;
+                    case "--mix":
+                        weights = parseMix(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (clients < 1 || seconds < 1 || warmup < 0) {
+                throw new IllegalArgumentException("Clients and seconds must be positive and warm-up not negative");
+            }
+            LoadGenerator generator = new LoadGenerator(URI.create(url), ticker, weights);
+            System.out.println(TradingApp.ANSI_CYAN + "Driving " + url + " with " + clients + " clients for "
+                    + warmup + " s warm-up + " + seconds + " s..." + TradingApp.ANSI_RESET);
+            System.out.println(generator.run(clients, warmup * 1000, seconds * 1000));
+        } catch (IllegalArgumentException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error: " + e.getMessage() + TradingApp.ANSI_RESET);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like quote=70, got '" + part + "'");
+            }
+            Operation operation;
+            try {
+                operation = Operation.valueOf(pair[0].trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown operation '" + pair[0].trim()
+                        + "'; use quote, portfolio, history, buy or sell");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative, got " + weight);
+            }
+            weights[operation.ordinal()] = weight;
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,270 @@
+package com.codealpha.trading;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Manages all the stocks available for trading and their price updates.
+ *
+ * <p>Market data is kept column-wise in {@link MarketData}; hot paths resolve
+ * a ticker to its int ID once with {@link #getStockId(CharSequence)} and then
+ * read prices by ID. Prices are advanced by a {@link TickEngine}. The seed
+ * comes from the {@code market.seed} system property when set, so a run can
+ * be replayed, and the {@link PriceModel} from {@code market.model}
+ * (see {@link PriceModels#named}). {@code market.synthetic=N} lists N
+ * generated instruments after the default ones, to try large universes.
+ *
+ * <p>Tables and searches read the ticker order kept by the index, and
+ * prices from the per-tick {@link Quotes}, so browsing a large universe
+ * neither sorts it nor re-reads the live columns row by row.
+ */
+public class Market {
+    private final MarketData data;
+    private final TickEngine tickEngine;
+    private final List<MarketListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object quotesLock = new Object();
+    private volatile Quotes quotes = Quotes.EMPTY;
+
+    public Market() {
+        this(Long.getLong("market.seed", System.nanoTime()));
+        int synthetic = Integer.getInteger("market.synthetic", 0);
+        for (int i = 0; i < synthetic; i++) {
+            String ticker = String.format("S%06d", i);
+            data.add(ticker, "Synthetic " + ticker, 50.0 + (i % 450));
+        }
+        setPriceModel(PriceModels.named(System.getProperty("market.model", "uniform")).get());
+    }
+
+    public Market(long seed) {
+        this(seed, 8);
+        initializeStocks();
+    }
+
+    private Market(long seed, int expectedSize) {
+        this.data = new MarketData(expectedSize);
+        this.tickEngine = new TickEngine(data, seed);
+    }
+
+    /**
+     * Builds a market of {@code count} generated instruments, used to simulate
+     * large universes.
+     */
+    public static Market synthetic(int count, long seed) {
+        Market market = new Market(seed, count);
+        for (int i = 0; i < count; i++) {
+            String ticker = String.format("S%06d", i);
+            market.data.add(ticker, "Synthetic " + ticker, 50.0 + (i % 450));
+        }
+        return market;
+    }
+
+    /**
+     * Builds a market listing the given instruments at the given prices, used
+     * to replay a {@link TickTape} recorded from another market.
+     */
+    public static Market listing(String[] tickers, String[] names, double[] prices) {
+        Market market = new Market(0, tickers.length);
+        for (int i = 0; i < tickers.length; i++) {
+            market.data.add(tickers[i], names[i], prices[i]);
+        }
+        return market;
+    }
+
+    private void initializeStocks() {
+        data.add("AAPL", "Apple Inc.", 175.20);
+        data.add("MSFT", "Microsoft Corp.", 340.54);
+        data.add("GOOGL", "Alphabet Inc.", 140.88);
+        data.add("AMZN", "Amazon.com, Inc.", 135.30);
+        data.add("TSLA", "Tesla, Inc.", 260.02);
+        data.add("NVDA", "NVIDIA Corporation", 470.61);
+        data.add("META", "Meta Platforms, Inc.", 305.49);
+        data.add("JPM", "JPMorgan Chase & Co.", 150.12);
+    }
+
+    public void updateMarket() {
+        tickEngine.tick();
+        notifyListeners();
+    }
+
+    /**
+     * Switches the model that moves prices, from the next tick on.
+     */
+    public void setPriceModel(PriceModel model) {
+        tickEngine.setPriceModel(model);
+    }
+
+    /**
+     * Publishes recorded prices, indexed by stock ID, as the next tick instead
+     * of generating one.
+     */
+    public void replayTick(double[] prices) {
+        tickEngine.replay(prices);
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        MarketSnapshot snapshot = data.getSnapshot();
+        for (MarketListener listener : listeners) {
+            listener.onTick(snapshot);
+        }
+    }
+
+    public void addListener(MarketListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MarketListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Latest consistent set of prices, indexed by stock ID.
+     */
+    public MarketSnapshot getSnapshot() {
+        return data.getSnapshot();
+    }
+
+    public MarketData getData() {
+        return data;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Resolves a ticker (any case) to its stock ID without allocating, or
+     * returns -1 when it is not listed.
+     */
+    public int getStockId(CharSequence ticker) {
+        return data.findId(ticker);
+    }
+
+    public double getPrice(int id) {
+        return data.getPrice(id);
+    }
+
+    public long getPriceCents(int id) {
+        return data.getPriceCents(id);
+    }
+
+    public String getTicker(int id) {
+        return data.getTicker(id);
+    }
+
+    public Stock getStock(int id) {
+        return data.getStock(id);
+    }
+
+    public Stock getStock(String ticker) {
+        int id = data.findId(ticker);
+        return id < 0 ? null : data.getStock(id);
+    }
+
+    /**
+     * Quotes as of the latest tick. They are copied from the market once per
+     * tick, on first use, and shared by every caller until the next one.
+     */
+    public Quotes getQuotes() {
+        Quotes cached = quotes;
+        MarketSnapshot snapshot = data.getSnapshot();
+        if (cached.getTick() == snapshot.getVersion() && cached.size() == snapshot.size()) {
+            return cached;
+        }
+        synchronized (quotesLock) {
+            cached = quotes;
+            snapshot = data.getSnapshot();
+            if (cached.getTick() != snapshot.getVersion() || cached.size() != snapshot.size()) {
+                cached = Quotes.of(snapshot);
+                quotes = cached;
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * IDs of up to {@code limit} instruments whose tickers start with
+     * {@code prefix} (any case), in ticker order.
+     */
+    public int[] searchTickers(CharSequence prefix, int limit) {
+        int[] matches = new int[Math.max(0, Math.min(limit, data.size()))];
+        int count = 0;
+        for (int rank = data.findRank(prefix); rank < data.size() && count < matches.length; rank++) {
+            int id = data.getIdInTickerOrder(rank);
+            if (!data.tickerStartsWith(id, prefix)) {
+                break;
+            }
+            matches[count++] = id;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Position in ticker order of the first ticker starting with
+     * {@code prefix}, or -1 when none does.
+     */
+    public int findTickerRank(CharSequence prefix) {
+        int rank = data.findRank(prefix);
+        return rank < data.size() && data.tickerStartsWith(data.getIdInTickerOrder(rank), prefix) ? rank : -1;
+    }
+
+    public void displayMarket() {
+        Screen screen = new Screen();
+        renderMarket(screen.begin(), 0, size());
+        screen.print();
+    }
+
+    /**
+     * Appends the market table to {@code screen}: up to {@code rows}
+     * instruments in ticker order, starting at position {@code from}, so
+     * only the visible part of a large universe is formatted.
+     */
+    public void renderMarket(Screen screen, int from, int rows) {
+        Quotes quotes = getQuotes();
+        screen.newline().text(TradingApp.ANSI_PURPLE).text("--- Live Stock Market ---").text(TradingApp.ANSI_RESET)
+                .newline();
+        renderHeader(screen);
+        int to = Math.min(data.size(), from + rows);
+        for (int rank = Math.max(0, from); rank < to; rank++) {
+            renderRow(screen, quotes, data.getIdInTickerOrder(rank));
+        }
+        screen.text(TradingApp.ANSI_CYAN).repeat('-', 64).text(TradingApp.ANSI_RESET).newline();
+    }
+
+    /**
+     * Appends tables of the {@code count} biggest gainers and losers of the
+     * latest tick to {@code screen}.
+     */
+    public void renderMovers(Screen screen, int count) {
+        Quotes quotes = getQuotes();
+        for (int side = 0; side < 2; side++) {
+            boolean gainers = side == 0;
+            screen.newline().text(TradingApp.ANSI_PURPLE).text(gainers ? "--- Top Gainers ---" : "--- Top Losers ---")
+                    .text(TradingApp.ANSI_RESET).newline();
+            renderHeader(screen);
+            for (int id : quotes.topMovers(count, gainers)) {
+                renderRow(screen, quotes, id);
+            }
+            screen.text(TradingApp.ANSI_CYAN).repeat('-', 64).text(TradingApp.ANSI_RESET).newline();
+        }
+    }
+
+    private static void renderHeader(Screen screen) {
+        screen.text(TradingApp.ANSI_CYAN).repeat('-', 64).newline();
+        screen.left("Ticker", 10).text(" | ").left("Company Name", 25).text(" | ").right("Price", 12).text(" | ")
+                .right("Change", 12).newline();
+        screen.repeat('-', 64).text(TradingApp.ANSI_RESET).newline();
+    }
+
+    private void renderRow(Screen screen, Quotes quotes, int id) {
+        if (id >= quotes.size()) {
+            return; // Listed after this tick
+        }
+        long change = quotes.getChangeCents(id);
+        screen.left(data.getTicker(id), 10).text(" | ").left(data.getName(id), 25).text(" | ")
+                .money(quotes.getPriceCents(id), 12).text(" | ")
+                .text(change >= 0 ? TradingApp.ANSI_GREEN : TradingApp.ANSI_RED).money(Math.abs(change), 0)
+                .text(change >= 0 ? " ▲" : " ▼").text(TradingApp.ANSI_RESET).newline();
+    }
+}
\ No newline at end of file
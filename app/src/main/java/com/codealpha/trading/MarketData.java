@@ -0,0 +1,189 @@
+package com.codealpha.trading;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Column-oriented store for every listed instrument. Tickers are interned to
+ * int IDs once; names and price histories live in arrays indexed by that ID,
+ * and current/previous prices live in the double-buffered
+ * {@link MarketSnapshot} columns that the {@link TickEngine} publishes.
+ *
+ * <p>Instruments are listed up front; {@link #add} is not safe to call while
+ * the market is ticking.
+ */
+public class MarketData {
+    private final TickerIndex index = new TickerIndex();
+    private final int historyDepth;
+    private String[] names;
+    private PriceHistory[] histories;
+    private Stock[] views;
+    private final MarketSnapshot[] buffers = new MarketSnapshot[2];
+    private volatile MarketSnapshot current;
+    private long tick;
+
+    public MarketData(int expectedSize) {
+        this(expectedSize, PriceHistory.DEFAULT_DEPTH);
+    }
+
+    public MarketData(int expectedSize, int historyDepth) {
+        this.historyDepth = historyDepth;
+        int capacity = Math.max(8, expectedSize);
+        this.names = new String[capacity];
+        this.histories = new PriceHistory[capacity];
+        this.views = new Stock[capacity];
+        this.buffers[0] = new MarketSnapshot(capacity);
+        this.buffers[1] = new MarketSnapshot(capacity);
+        this.current = buffers[0];
+    }
+
+    /**
+     * Lists an instrument at {@code price}, rounded to whole cents, and
+     * returns its ID. Re-adding a known ticker only returns the existing ID.
+     *
+     * @throws IllegalArgumentException if the ticker is empty, longer than
+     *         {@link RecordCodec#MAX_TICKER_LENGTH} characters or not ASCII,
+     *         and so could not be journaled
+     */
+    public int add(String ticker, String name, double price) {
+        checkTicker(ticker);
+        int existing = index.find(ticker);
+        if (existing >= 0) {
+            return existing;
+        }
+        price = Money.toDollars(Money.toCents(price));
+        int id = index.intern(ticker);
+        if (id == names.length) {
+            grow(names.length * 2);
+        }
+        names[id] = name;
+        histories[id] = new PriceHistory(historyDepth);
+        histories[id].add(price);
+        views[id] = new Stock(this, id);
+        current.prices[id] = price;
+        current.previousPrices[id] = price;
+        current.size = id + 1;
+        return id;
+    }
+
+    private static void checkTicker(String ticker) {
+        if (ticker.isEmpty() || ticker.length() > RecordCodec.MAX_TICKER_LENGTH) {
+            throw new IllegalArgumentException("Ticker '" + ticker + "' must be 1 to "
+                    + RecordCodec.MAX_TICKER_LENGTH + " characters long");
+        }
+        for (int i = 0; i < ticker.length(); i++) {
+            if (ticker.charAt(i) > 0x7F) {
+                throw new IllegalArgumentException("Ticker '" + ticker + "' is not ASCII");
+            }
+        }
+    }
+
+    private void grow(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        histories = Arrays.copyOf(histories, capacity);
+        views = Arrays.copyOf(views, capacity);
+        for (int b = 0; b < buffers.length; b++) {
+            MarketSnapshot old = buffers[b];
+            MarketSnapshot grown = new MarketSnapshot(capacity);
+            System.arraycopy(old.prices, 0, grown.prices, 0, old.size);
+            System.arraycopy(old.previousPrices, 0, grown.previousPrices, 0, old.size);
+            grown.size = old.size;
+            grown.version = old.version;
+            if (current == old) {
+                current = grown;
+            }
+            buffers[b] = grown;
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Case-insensitive, allocation-free ticker lookup. Returns -1 when the
+     * ticker is not listed.
+     */
+    public int findId(CharSequence ticker) {
+        return index.find(ticker);
+    }
+
+    public String getTicker(int id) {
+        return index.getTicker(id);
+    }
+
+    /**
+     * ID of the instrument at {@code rank} in ticker order.
+     */
+    public int getIdInTickerOrder(int rank) {
+        return index.idAt(rank);
+    }
+
+    /**
+     * Rank in ticker order of the first ticker not less than {@code prefix}
+     * (any case), or {@link #size()} when there is none.
+     */
+    public int findRank(CharSequence prefix) {
+        return index.rankOf(prefix);
+    }
+
+    public boolean tickerStartsWith(int id, CharSequence prefix) {
+        return index.startsWith(id, prefix);
+    }
+
+    public String getName(int id) {
+        return names[id];
+    }
+
+    public double getPrice(int id) {
+        return current.prices[id];
+    }
+
+    public long getPriceCents(int id) {
+        return current.getPriceCents(id);
+    }
+
+    public double getPreviousPrice(int id) {
+        return current.previousPrices[id];
+    }
+
+    public PriceHistory getHistory(int id) {
+        return histories[id];
+    }
+
+    /**
+     * Shared, pre-built view object for an instrument.
+     */
+    public Stock getStock(int id) {
+        return views[id];
+    }
+
+    public MarketSnapshot getSnapshot() {
+        return current;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the buffer the next tick should be written into, marked as
+     * being rewritten. Called only by the tick engine.
+     */
+    MarketSnapshot beginTick() {
+        MarketSnapshot next = buffers[(int) ((tick + 1) & 1)];
+        next.version = MarketSnapshot.WRITING;
+        VarHandle.storeStoreFence(); // Readers must see WRITING before any of the new prices
+        next.size = size();
+        return next;
+    }
+
+    /**
+     * Publishes a buffer filled by the tick engine as the current prices.
+     */
+    void publish(MarketSnapshot next) {
+        tick++;
+        next.version = tick;
+        current = next;
+    }
+}
@@ -0,0 +1,333 @@
+package com.codealpha.trading;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Market data bus that fans each published tick out to independent
+ * subscribers, each on its own thread.
+ *
+ * <p>Ticks are copied into a bounded ring of preallocated slots (in the style
+ * of a disruptor) and the producer never waits for anyone: a subscriber that
+ * falls more than a ring's length behind has the ticks it missed counted as
+ * dropped. Subscribers that only care about the latest prices (valuation,
+ * displays) can ask to be conflated, skipping straight to the newest tick
+ * whenever several are waiting. Each wake-up drains every available tick in
+ * one batch.
+ *
+ * <p>The feed can drive the market itself on a background thread with
+ * {@link #start(long)}, or simply relay ticks made by whoever calls
+ * {@link Market#updateMarket()}.
+ */
+public class MarketFeed implements MarketListener {
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final long WRITING = -1;
+
+    private final Market market;
+    private final Slot[] ring;
+    private final int mask;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile long published = -1; // Sequence of the newest complete slot
+    private Thread ticker;
+    private volatile boolean running;
+
+    public MarketFeed(Market market) {
+        this(market, Integer.getInteger("market.feedCapacity", DEFAULT_CAPACITY));
+    }
+
+    /**
+     * @param capacity ring size in ticks, rounded up to a power of two
+     */
+    public MarketFeed(Market market, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Feed capacity must be positive, got " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.market = market;
+        this.ring = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot(market.size());
+        }
+        market.addListener(this);
+    }
+
+    /**
+     * Starts ticking the market every {@code intervalMillis} on a background
+     * thread. A tick that overruns the interval delays the next one rather
+     * than queueing a burst.
+     */
+    public synchronized void start(long intervalMillis) {
+        if (ticker != null) {
+            return;
+        }
+        running = true;
+        ticker = new Thread(() -> runTicker(intervalMillis), "market-feed");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * Stops the ticking thread, if any, and every subscriber thread, waiting
+     * for ticks already delivered to finish.
+     */
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = ticker;
+            ticker = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            join(thread);
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    private void runTicker(long intervalMillis) {
+        long next = System.nanoTime();
+        while (running) {
+            try {
+                market.updateMarket();
+            } catch (RuntimeException e) {
+                System.out.println(TradingApp.ANSI_RED + "Error: Market tick failed: " + e.getMessage()
+                        + TradingApp.ANSI_RESET);
+            }
+            next = Math.max(next + intervalMillis * 1_000_000L, System.nanoTime());
+            long wait;
+            while (running && (wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+
+    /**
+     * Subscribes {@code listener} on a thread of its own. Whether or not it is
+     * conflated, the listener sees ticks in order and is never called
+     * concurrently with itself. The snapshot it is handed belongs to the
+     * subscription and stays valid until the listener returns.
+     */
+    public Subscription subscribe(String name, MarketListener listener, boolean conflate) {
+        Subscription subscription = new Subscription(name, listener, conflate);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return List.copyOf(subscriptions);
+    }
+
+    /**
+     * Number of ticks published to the ring so far.
+     */
+    public long getPublished() {
+        return published + 1;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Copies a tick into the next ring slot and wakes idle subscribers. Only
+     * one thread may tick the market at a time.
+     */
+    @Override
+    public void onTick(MarketSnapshot snapshot) {
+        long sequence = published + 1;
+        Slot slot = ring[(int) (sequence & mask)];
+        slot.sequence = WRITING;
+        VarHandle.storeStoreFence();
+        slot.copyFrom(snapshot);
+        slot.sequence = sequence;
+        published = sequence;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.waiting) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One preallocated ring entry, guarded by its sequence like a seqlock.
+     */
+    private static final class Slot {
+        volatile long sequence = WRITING;
+        long version;
+        int size;
+        double[] prices;
+        double[] previousPrices;
+
+        Slot(int capacity) {
+            this.prices = new double[capacity];
+            this.previousPrices = new double[capacity];
+        }
+
+        void copyFrom(MarketSnapshot snapshot) {
+            if (prices.length < snapshot.size) {
+                prices = new double[snapshot.size];
+                previousPrices = new double[snapshot.size];
+            }
+            System.arraycopy(snapshot.prices, 0, prices, 0, snapshot.size);
+            System.arraycopy(snapshot.previousPrices, 0, previousPrices, 0, snapshot.size);
+            size = snapshot.size;
+            version = snapshot.version;
+        }
+    }
+
+    /**
+     * A subscriber's position in the feed and its delivery counters. Counters
+     * are written only by the subscriber's own thread.
+     */
+    public final class Subscription {
+        private final String name;
+        private final MarketListener listener;
+        private final boolean conflate;
+        private final Thread thread;
+        private MarketSnapshot view;
+        private long next; // Next sequence to deliver
+        private volatile boolean waiting;
+        private volatile boolean open = true;
+        private volatile long delivered;
+        private volatile long dropped;
+        private volatile long conflated;
+
+        private Subscription(String name, MarketListener listener, boolean conflate) {
+            this.name = name;
+            this.listener = listener;
+            this.conflate = conflate;
+            this.next = published + 1;
+            this.view = new MarketSnapshot(market.size());
+            this.thread = new Thread(this::run, "market-feed-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isConflated() {
+            return conflate;
+        }
+
+        public long getDelivered() {
+            return delivered;
+        }
+
+        /**
+         * Ticks overwritten in the ring before this subscriber could read them.
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * Ticks skipped because a newer one was already waiting.
+         */
+        public long getConflated() {
+            return conflated;
+        }
+
+        /**
+         * Published ticks not yet delivered.
+         */
+        public long getLag() {
+            return Math.max(0, published + 1 - next);
+        }
+
+        /**
+         * Stops delivery after the tick in progress, if any, and waits for the
+         * subscriber thread to exit.
+         */
+        public void close() {
+            open = false;
+            subscriptions.remove(this);
+            LockSupport.unpark(thread);
+            if (Thread.currentThread() != thread) {
+                join(thread);
+            }
+        }
+
+        private void run() {
+            while (open) {
+                long available = published;
+                if (available < next) {
+                    waiting = true;
+                    if (published < next && open) {
+                        LockSupport.park(this);
+                    }
+                    waiting = false;
+                    continue;
+                }
+                long oldest = available - mask;
+                if (conflate) {
+                    conflated += available - next;
+                    next = available;
+                } else if (next < oldest) {
+                    dropped += oldest - next;
+                    next = oldest;
+                }
+                while (next <= available && open) {
+                    if (!read(next)) {
+                        Thread.onSpinWait(); // Overwritten mid-read; recount from the new head
+                        break;
+                    }
+                    next++;
+                    try {
+                        listener.onTick(view);
+                    } catch (RuntimeException e) {
+                        System.out.println(TradingApp.ANSI_RED + "Error in market subscriber '" + name + "': "
+                                + e.getMessage() + TradingApp.ANSI_RESET);
+                    }
+                    delivered++;
+                }
+            }
+        }
+
+        private boolean read(long sequence) {
+            Slot slot = ring[(int) (sequence & mask)];
+            if (slot.sequence != sequence) {
+                return false;
+            }
+            int size = slot.size;
+            double[] prices = slot.prices;
+            double[] previousPrices = slot.previousPrices;
+            if (prices.length < size || previousPrices.length < size) {
+                return false; // Slot grew mid-read
+            }
+            if (view.prices.length < size) {
+                view = new MarketSnapshot(size);
+            }
+            System.arraycopy(prices, 0, view.prices, 0, size);
+            System.arraycopy(previousPrices, 0, view.previousPrices, 0, size);
+            long version = slot.version;
+            VarHandle.loadLoadFence();
+            if (slot.sequence != sequence) {
+                return false;
+            }
+            view.size = size;
+            view.version = version;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %,d delivered, %,d dropped, %,d conflated, lag %,d", name, delivered, dropped,
+                    conflated, getLag());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.codealpha.trading;
+
+/**
+ * Receives a callback after every market tick has been published.
+ */
+public interface MarketListener {
+    void onTick(MarketSnapshot snapshot);
+}
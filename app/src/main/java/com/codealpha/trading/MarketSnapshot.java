@@ -0,0 +1,111 @@
+package com.codealpha.trading;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Current and previous price of every instrument as of one published market
+ * tick, indexed by {@link MarketData} ID.
+ *
+ * <p>The tick engine double-buffers snapshots, so a snapshot object is reused
+ * two ticks after it was published. Readers that may hold one that long
+ * should use {@link #copyPrices(double[])}, or check {@link #getVersion()}
+ * before and after reading with a {@code VarHandle.loadLoadFence()} before
+ * the second check, to be sure they saw a single consistent tick.
+ */
+public class MarketSnapshot {
+    static final long WRITING = -1;
+
+    final double[] prices;
+    final double[] previousPrices;
+    int size;
+    volatile long version;
+
+    MarketSnapshot(int capacity) {
+        this.prices = new double[capacity];
+        this.previousPrices = new double[capacity];
+        this.version = 0;
+    }
+
+    /**
+     * Tick number this snapshot belongs to, or -1 while it is being rewritten.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getPrice(int id) {
+        return prices[id];
+    }
+
+    /**
+     * The price in cents. Prices are always whole cents, so this is exact.
+     */
+    public long getPriceCents(int id) {
+        return Money.toCents(prices[id]);
+    }
+
+    public double getPreviousPrice(int id) {
+        return previousPrices[id];
+    }
+
+    public double getPriceChange(int id) {
+        return prices[id] - previousPrices[id];
+    }
+
+    /**
+     * Copies all prices into {@code dest}, retrying if the engine starts
+     * rewriting this buffer mid-copy, and returns the tick they belong to.
+     */
+    public long copyPrices(double[] dest) {
+        return copyPrices(dest, null);
+    }
+
+    /**
+     * Like {@link #copyPrices(double[])}, also copying the previous prices
+     * into {@code previousDest} unless it is null.
+     */
+    public long copyPrices(double[] dest, double[] previousDest) {
+        while (true) {
+            long before = version;
+            if (before != WRITING) {
+                System.arraycopy(prices, 0, dest, 0, size);
+                if (previousDest != null) {
+                    System.arraycopy(previousPrices, 0, previousDest, 0, size);
+                }
+                VarHandle.loadLoadFence(); // The copies must be done before version is read again
+                if (version == before) {
+                    return before;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Copies the prices in cents of the first {@code count} IDs in
+     * {@code ids} into {@code dest}, all from one tick, and returns that tick.
+     * Negative IDs are skipped. Cheaper than {@link #copyPrices(double[])}
+     * when only a few instruments are needed.
+     */
+    public long copyPriceCents(int[] ids, int count, long[] dest) {
+        while (true) {
+            long before = version;
+            if (before != WRITING) {
+                for (int i = 0; i < count; i++) {
+                    if (ids[i] >= 0) {
+                        dest[i] = Money.toCents(prices[ids[i]]);
+                    }
+                }
+                VarHandle.loadLoadFence(); // The reads must be done before version is read again
+                if (version == before) {
+                    return before;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
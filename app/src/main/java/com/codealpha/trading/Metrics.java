@@ -0,0 +1,245 @@
+package com.codealpha.trading;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and latency histograms for the tick, trade,
+ * valuation and persistence paths.
+ *
+ * <p>Metrics are off unless the JVM starts with {@code -Dmetrics.enabled=true}.
+ * {@link #ENABLED} is a constant, so when it is false the JIT drops the
+ * {@code if (Metrics.ENABLED)} checks in {@link #start()},
+ * {@link LatencyHistogram#record} and {@link Counter} along with the clock
+ * reads they guard, and instrumented code runs as if it were not.
+ *
+ * <p>With {@code -Dmetrics.exportFile=FILE}, {@link #startExporter()} also
+ * rewrites FILE as JSON every {@code -Dmetrics.exportMs} (default 10000).
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("metrics.enabled");
+
+    public static final LatencyHistogram MARKET_TICK = new LatencyHistogram("market.tick");
+    public static final LatencyHistogram TRADE_BUY = new LatencyHistogram("trade.buy");
+    public static final LatencyHistogram TRADE_SELL = new LatencyHistogram("trade.sell");
+    public static final LatencyHistogram TRADE_BATCH = new LatencyHistogram("trade.batch");
+    public static final LatencyHistogram VALUATION = new LatencyHistogram("portfolio.valuation");
+    public static final LatencyHistogram REVALUE = new LatencyHistogram("portfolio.revalue");
+    public static final LatencyHistogram SNAPSHOT_SAVE = new LatencyHistogram("persistence.snapshot");
+    public static final LatencyHistogram JOURNAL_FLUSH = new LatencyHistogram("persistence.flush");
+
+    public static final Counter TICKS = new Counter("market.ticks");
+    public static final Counter FILLS = new Counter("trade.fills");
+    public static final Counter REJECTS = new Counter("trade.rejects");
+    public static final Counter JOURNAL_RECORDS = new Counter("persistence.records");
+
+    private static final List<LatencyHistogram> HISTOGRAMS = List.of(MARKET_TICK, TRADE_BUY, TRADE_SELL,
+            TRADE_BATCH, VALUATION, REVALUE, SNAPSHOT_SAVE, JOURNAL_FLUSH);
+    private static final List<Counter> COUNTERS = List.of(TICKS, FILLS, REJECTS, JOURNAL_RECORDS);
+
+    private static long startMillis = System.currentTimeMillis(); // Of the current measuring period
+    private static Thread exporter;
+
+    private Metrics() {
+    }
+
+    /**
+     * Clock reading to pass to {@link LatencyHistogram#record}, or 0 without
+     * reading the clock when metrics are disabled.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Clears every counter and histogram and starts a new measuring period.
+     */
+    public static synchronized void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+        for (Counter counter : COUNTERS) {
+            counter.reset();
+        }
+        startMillis = System.currentTimeMillis();
+    }
+
+    private static synchronized long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Counters, then one line per histogram with its latencies in
+     * microseconds.
+     */
+    public static String toText() {
+        if (!ENABLED) {
+            return "Metrics are disabled; start with -Dmetrics.enabled=true to record them.";
+        }
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Since %.1f s ago:%n", (System.currentTimeMillis() - getStartMillis()) / 1000.0));
+        for (Counter counter : COUNTERS) {
+            text.append(String.format("  %-22s %,14d%n", counter.getName(), counter.get()));
+        }
+        text.append(String.format("%n  %-22s %10s %10s %10s %10s %10s %10s %10s%n", "Latency (µs)", "Count",
+                "Mean", "p50", "p90", "p99", "p99.9", "Max"));
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            LatencyHistogram.Snapshot s = histogram.snapshot();
+            text.append(String.format("  %-22s %,10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    histogram.getName(), s.getCount(), s.getMeanNanos() / 1e3, s.getPercentileNanos(0.5) / 1e3,
+                    s.getPercentileNanos(0.9) / 1e3, s.getPercentileNanos(0.99) / 1e3,
+                    s.getPercentileNanos(0.999) / 1e3, s.getMaxNanos() / 1e3));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes every metric as one JSON object, latencies in microseconds.
+     */
+    public static void writeJson(JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("enabled").value(ENABLED);
+        json.name("timestamp").value(System.currentTimeMillis());
+        json.name("since").value(getStartMillis());
+        json.name("counters").beginObject();
+        for (Counter counter : COUNTERS) {
+            json.name(counter.getName()).value(counter.get());
+        }
+        json.endObject();
+        json.name("latencyMicros").beginObject();
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            LatencyHistogram.Snapshot s = histogram.snapshot();
+            json.name(histogram.getName()).beginObject();
+            json.name("count").value(s.getCount());
+            json.name("mean").value(s.getMeanNanos() / 1e3);
+            json.name("p50").value(s.getPercentileNanos(0.5) / 1e3);
+            json.name("p90").value(s.getPercentileNanos(0.9) / 1e3);
+            json.name("p99").value(s.getPercentileNanos(0.99) / 1e3);
+            json.name("p999").value(s.getPercentileNanos(0.999) / 1e3);
+            json.name("max").value(s.getMaxNanos() / 1e3);
+            json.endObject();
+        }
+        json.endObject();
+        json.endObject();
+    }
+
+    /**
+     * Writes {@link #writeJson} output to {@code file}, replacing it
+     * atomically so readers never see a partial file.
+     */
+    public static void exportJson(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+                JsonWriter json = new JsonWriter(writer)) {
+            json.setIndent("  ");
+            writeJson(json);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Starts the periodic file export if metrics are enabled and
+     * {@code metrics.exportFile} is set. Idempotent.
+     */
+    public static synchronized void startExporter() {
+        String fileName = System.getProperty("metrics.exportFile");
+        if (!ENABLED || fileName == null || exporter != null) {
+            return;
+        }
+        Path file = Paths.get(fileName);
+        long intervalMillis = Math.max(100, Long.getLong("metrics.exportMs", 10_000));
+        exporter = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                export(file);
+            }
+        }, "metrics-exporter");
+        exporter.setDaemon(true);
+        exporter.start();
+    }
+
+    /**
+     * Stops the periodic export, writing the file one last time.
+     */
+    public static void stopExporter() {
+        Thread thread;
+        synchronized (Metrics.class) {
+            thread = exporter;
+            exporter = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        export(Paths.get(System.getProperty("metrics.exportFile")));
+    }
+
+    private static void export(Path file) {
+        try {
+            exportJson(file);
+        } catch (IOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error exporting metrics: " + e.getMessage()
+                    + TradingApp.ANSI_RESET);
+        }
+    }
+
+    /**
+     * Lock-free event counter; increments are dropped when metrics are
+     * disabled.
+     */
+    public static final class Counter {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+
+        Counter(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void increment() {
+            if (ENABLED) {
+                count.increment();
+            }
+        }
+
+        public void add(long amount) {
+            if (ENABLED) {
+                count.add(amount);
+            }
+        }
+
+        public long get() {
+            return count.sum();
+        }
+
+        void reset() {
+            count.reset();
+        }
+    }
+}
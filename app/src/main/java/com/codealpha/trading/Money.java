@@ -0,0 +1,54 @@
+package com.codealpha.trading;
+
+/**
+ * Fixed-point money. Cash, trade values, cost bases and valuations are held
+ * as whole cents in a {@code long}, so they add up exactly however many
+ * trades a portfolio sees. Dollars as {@code double} only appear at the edges:
+ * user input, JSON files, the price models and the console.
+ *
+ * <p>Market prices are kept as {@code double} for the price models, but the
+ * tick engine only ever publishes whole cents, so {@link #toCents(double)}
+ * recovers them exactly.
+ */
+public final class Money {
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Rounds a dollar amount to the nearest cent, halves away from zero.
+     */
+    public static long toCents(double dollars) {
+        double cents = dollars * CENTS_PER_DOLLAR;
+        return cents < 0 ? -Math.round(-cents) : Math.round(cents); // Math.round alone rounds halves up
+    }
+
+    public static double toDollars(long cents) {
+        return cents / (double) CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Value of {@code quantity} units at {@code cents} each.
+     *
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    public static long times(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /**
+     * {@code numerator / denominator} of {@code cents}, rounded to the nearest
+     * cent (halves up), for allocating part of a total such as the cost basis
+     * of shares sold. Exact for any {@code 0 <= numerator <= denominator}
+     * that fit in an int, with no intermediate overflow.
+     */
+    public static long share(long cents, int numerator, int denominator) {
+        if (numerator == denominator) {
+            return cents;
+        }
+        long whole = cents / denominator;
+        long remainder = cents % denominator;
+        return whole * numerator + Math.floorDiv(remainder * numerator + denominator / 2, denominator);
+    }
+}
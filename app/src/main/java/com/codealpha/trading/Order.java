@@ -0,0 +1,129 @@
+package com.codealpha.trading;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents an order to buy or sell a number of shares of a stock. Market
+ * orders fill at the current price and make up order baskets; limit and stop
+ * orders rest in an {@link OrderBook} until the price reaches them.
+ */
+public class Order {
+    public final String type; // "BUY" or "SELL"
+    public final String ticker;
+    public final int quantity;
+    public final String kind; // "MARKET", "LIMIT" or "STOP"
+    public final long priceCents; // Limit or stop price; 0 for market orders
+
+    public Order(String type, String ticker, int quantity) {
+        this(type, ticker, quantity, "MARKET", 0);
+    }
+
+    public Order(String type, String ticker, int quantity, String kind, double price) {
+        String side = type.trim().toUpperCase();
+        if (!side.equals("BUY") && !side.equals("SELL")) {
+            throw new IllegalArgumentException("Order type must be BUY or SELL, got '" + type + "'");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Order quantity must be positive, got " + quantity);
+        }
+        String orderKind = kind.trim().toUpperCase();
+        if (!orderKind.equals("MARKET") && !orderKind.equals("LIMIT") && !orderKind.equals("STOP")) {
+            throw new IllegalArgumentException("Order kind must be MARKET, LIMIT or STOP, got '" + kind + "'");
+        }
+        long cents = orderKind.equals("MARKET") ? 0 : Money.toCents(price);
+        if (!orderKind.equals("MARKET") && cents <= 0) {
+            throw new IllegalArgumentException(orderKind + " price must be at least $0.01, got " + price);
+        }
+        this.type = side;
+        this.ticker = ticker.trim().toUpperCase();
+        this.quantity = quantity;
+        this.kind = orderKind;
+        this.priceCents = cents;
+    }
+
+    public static Order buy(String ticker, int quantity) {
+        return new Order("BUY", ticker, quantity);
+    }
+
+    public static Order sell(String ticker, int quantity) {
+        return new Order("SELL", ticker, quantity);
+    }
+
+    /**
+     * Buy at or below, or sell at or above, {@code price}.
+     */
+    public static Order limit(String type, String ticker, int quantity, double price) {
+        return new Order(type, ticker, quantity, "LIMIT", price);
+    }
+
+    /**
+     * Buy once the price rises to, or sell once it falls to, {@code price}.
+     */
+    public static Order stop(String type, String ticker, int quantity, double price) {
+        return new Order(type, ticker, quantity, "STOP", price);
+    }
+
+    public double getPrice() {
+        return Money.toDollars(priceCents);
+    }
+
+    public boolean isMarket() {
+        return kind.equals("MARKET");
+    }
+
+    /**
+     * Parses a line of the form {@code BUY,AAPL,10}, or
+     * {@code BUY,AAPL,10,LIMIT,170.00} for a limit or stop order.
+     */
+    public static Order parse(String line) {
+        String[] parts = line.split(",");
+        if (parts.length != 3 && parts.length != 5) {
+            throw new IllegalArgumentException("Expected TYPE,TICKER,QUANTITY[,KIND,PRICE] but got '" + line + "'");
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(parts[2].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid quantity in '" + line + "'");
+        }
+        if (parts.length == 3) {
+            return new Order(parts[0], parts[1], quantity);
+        }
+        try {
+            return new Order(parts[0], parts[1], quantity, parts[3], Double.parseDouble(parts[4].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price in '" + line + "'");
+        }
+    }
+
+    /**
+     * Reads a basket file with one order per line. Blank lines and lines
+     * starting with {@code #} are skipped.
+     */
+    public static List<Order> loadBasket(Path file) throws IOException {
+        List<Order> orders = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    orders.add(parse(line));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return orders;
+    }
+}
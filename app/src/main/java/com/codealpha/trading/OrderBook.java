@@ -0,0 +1,289 @@
+package com.codealpha.trading;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Resting limit and stop orders, matched against the market on every tick.
+ *
+ * <p>Each stock has two {@link TriggerHeap}s of trigger prices in cents: one
+ * for orders that fire when the price falls to their trigger (buy limits and
+ * sell stops), keyed by the negated trigger so the highest comes first, and
+ * one for orders that fire when it rises to it (sell limits and buy stops),
+ * lowest first. A tick only looks at the top of the heaps of stocks that have
+ * open orders, so it costs O(log n) per triggered order however many orders
+ * rest away from the market. Triggered orders execute against the portfolio
+ * as market orders at the tick's price; ones that cannot fill (not enough cash
+ * or shares) are rejected.
+ *
+ * <p>An order ID is its arrival number shifted left past the bits of the slot
+ * that holds it, so IDs grow with time and still locate the order. Resting
+ * orders live in memory only; they are not persisted.
+ */
+public class OrderBook implements MarketListener {
+    private static final int SLOT_BITS = 24; // Up to 16M open orders
+    private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+    private static final int RECENT_FILLS = 10;
+
+    private final Market market;
+    private final Portfolio portfolio;
+
+    // Per stock ID
+    private TriggerHeap[] falling = new TriggerHeap[0]; // Fire when price <= trigger; keyed by -trigger
+    private TriggerHeap[] rising = new TriggerHeap[0]; // Fire when price >= trigger
+    private int[] stale = new int[0]; // Cancelled entries still in the stock's heaps
+    private int[] activeIndex = new int[0]; // Position in active, or -1
+    private int[] active = new int[16]; // Stock IDs with open orders
+    private int activeCount;
+
+    // Per slot
+    private long[] slotIds = new long[16]; // -1 when free
+    private Order[] slotOrders = new Order[16];
+    private int[] slotStocks = new int[16];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    private long nextArrival;
+    private int openCount;
+    private long filledCount;
+    private long rejectedCount;
+    private final Deque<Transaction> recentFills = new ArrayDeque<>();
+
+    public OrderBook(Market market, Portfolio portfolio) {
+        this(market, portfolio, null);
+    }
+
+    /**
+     * Takes ticks from {@code feed} on a subscription of its own, unconflated
+     * so that a price that touches a trigger for a single tick still fires
+     * it. A {@code null} feed listens to the market directly.
+     */
+    public OrderBook(Market market, Portfolio portfolio, MarketFeed feed) {
+        this.market = market;
+        this.portfolio = portfolio;
+        Arrays.fill(slotIds, -1);
+        if (feed == null) {
+            market.addListener(this);
+        } else {
+            feed.subscribe("order-triggers", this, false);
+        }
+    }
+
+    /**
+     * Places a limit or stop order and returns its ID. It is checked against
+     * prices from the next tick on.
+     *
+     * @throws IllegalArgumentException for market orders and unknown tickers
+     */
+    public synchronized long place(Order order) {
+        if (order.isMarket()) {
+            throw new IllegalArgumentException("Only limit and stop orders can rest in the order book");
+        }
+        int stockId = market.getStockId(order.ticker);
+        if (stockId < 0) {
+            throw new IllegalArgumentException("Stock '" + order.ticker + "' not found");
+        }
+        ensureStock(stockId);
+
+        int slot = allocateSlot();
+        long id = (nextArrival++ << SLOT_BITS) | slot;
+        slotIds[slot] = id;
+        slotOrders[slot] = order;
+        slotStocks[slot] = stockId;
+        openCount++;
+
+        long trigger = order.priceCents;
+        if (order.type.equals("BUY") == order.kind.equals("LIMIT")) {
+            falling[stockId].add(-trigger, id);
+        } else {
+            rising[stockId].add(trigger, id);
+        }
+        if (activeIndex[stockId] < 0) {
+            activate(stockId);
+        }
+        return id;
+    }
+
+    /**
+     * Cancels an open order. Returns {@code false} if it already filled, was
+     * rejected or cancelled, or never existed.
+     */
+    public synchronized boolean cancel(long id) {
+        if (!isOpen(id)) {
+            return false;
+        }
+        int slot = (int) (id & SLOT_MASK);
+        int stockId = slotStocks[slot];
+        releaseSlot(slot);
+        if (++stale[stockId] > 64 && stale[stockId] > size(stockId) / 2) {
+            falling[stockId].compact(this);
+            rising[stockId].compact(this);
+            stale[stockId] = 0;
+        }
+        return true;
+    }
+
+    // Caller holds the monitor
+    boolean isOpen(long id) {
+        int slot = (int) (id & SLOT_MASK);
+        return id >= 0 && slot < slotCount && slotIds[slot] == id;
+    }
+
+    @Override
+    public void onTick(MarketSnapshot snapshot) {
+        List<Order> triggered = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < activeCount;) {
+                int stockId = active[i];
+                long price = snapshot.getPriceCents(stockId);
+                drain(falling[stockId], stockId, -price, triggered);
+                drain(rising[stockId], stockId, price, triggered);
+                if (falling[stockId].isEmpty() && rising[stockId].isEmpty()) {
+                    deactivate(stockId); // Moves the last active stock into position i
+                } else {
+                    i++;
+                }
+            }
+        }
+        if (triggered.isEmpty()) {
+            return;
+        }
+
+        List<Transaction> fills = portfolio.executeAll(triggered, market, snapshot);
+        synchronized (this) {
+            for (Transaction t : fills) {
+                if (t == null) {
+                    rejectedCount++;
+                    continue;
+                }
+                filledCount++;
+                recentFills.addFirst(t);
+                if (recentFills.size() > RECENT_FILLS) {
+                    recentFills.removeLast();
+                }
+            }
+        }
+    }
+
+    // Pops every entry with key <= bound; caller holds the monitor
+    private void drain(TriggerHeap heap, int stockId, long bound, List<Order> triggered) {
+        while (!heap.isEmpty() && heap.peekKey() <= bound) {
+            long id = heap.peekId();
+            heap.removeTop();
+            if (isOpen(id)) {
+                int slot = (int) (id & SLOT_MASK);
+                Order order = slotOrders[slot];
+                triggered.add(new Order(order.type, order.ticker, order.quantity));
+                releaseSlot(slot);
+            } else {
+                stale[stockId]--;
+            }
+        }
+    }
+
+    public synchronized int getOpenOrderCount() {
+        return openCount;
+    }
+
+    /**
+     * Open orders by ID, oldest first.
+     */
+    public synchronized SortedMap<Long, Order> getOpenOrders() {
+        SortedMap<Long, Order> open = new TreeMap<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slotIds[slot] >= 0) {
+                open.put(slotIds[slot], slotOrders[slot]);
+            }
+        }
+        return open;
+    }
+
+    public synchronized long getFilledCount() {
+        return filledCount;
+    }
+
+    /**
+     * Triggered orders that could not fill for lack of cash or shares.
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * The last few fills, newest first.
+     */
+    public synchronized List<Transaction> getRecentFills() {
+        return new ArrayList<>(recentFills);
+    }
+
+    private int size(int stockId) {
+        return falling[stockId].size() + rising[stockId].size();
+    }
+
+    private void ensureStock(int stockId) {
+        if (stockId < falling.length) {
+            return;
+        }
+        int capacity = Math.max(stockId + 1, market.size());
+        int old = falling.length;
+        falling = Arrays.copyOf(falling, capacity);
+        rising = Arrays.copyOf(rising, capacity);
+        stale = Arrays.copyOf(stale, capacity);
+        activeIndex = Arrays.copyOf(activeIndex, capacity);
+        for (int i = old; i < capacity; i++) {
+            falling[i] = new TriggerHeap();
+            rising[i] = new TriggerHeap();
+            activeIndex[i] = -1;
+        }
+    }
+
+    private void activate(int stockId) {
+        if (activeCount == active.length) {
+            active = Arrays.copyOf(active, activeCount * 2);
+        }
+        activeIndex[stockId] = activeCount;
+        active[activeCount++] = stockId;
+    }
+
+    private void deactivate(int stockId) {
+        int index = activeIndex[stockId];
+        int last = active[--activeCount];
+        active[index] = last;
+        activeIndex[last] = index;
+        activeIndex[stockId] = -1;
+        stale[stockId] = 0;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount > SLOT_MASK) {
+            throw new IllegalStateException("Too many open orders");
+        }
+        if (slotCount == slotIds.length) {
+            int capacity = slotCount * 2;
+            slotIds = Arrays.copyOf(slotIds, capacity);
+            Arrays.fill(slotIds, slotCount, capacity, -1);
+            slotOrders = Arrays.copyOf(slotOrders, capacity);
+            slotStocks = Arrays.copyOf(slotStocks, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void releaseSlot(int slot) {
+        slotIds[slot] = -1;
+        slotOrders[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        openCount--;
+    }
+}
@@ -0,0 +1,35 @@
+package com.codealpha.trading;
+
+/**
+ * Durability policy for portfolio writes, trading safety against throughput.
+ */
+public enum PersistenceMode {
+    /** Every trade is written and fsynced on the trading thread before it returns. */
+    SYNC,
+    /** Trades wait for a shared flush that coalesces everything queued in a short window. */
+    GROUP_COMMIT,
+    /** Trades return immediately; a background thread flushes them shortly after. */
+    WRITE_BEHIND,
+    /** Nothing touches disk; history is kept in memory. For backtests and other throwaway runs. */
+    MEMORY;
+
+    /**
+     * Parses a mode name such as {@code sync}, {@code group} or {@code async},
+     * falling back to {@link #GROUP_COMMIT} for unknown values.
+     */
+    public static PersistenceMode parse(String value) {
+        if (value == null) {
+            return GROUP_COMMIT;
+        }
+        switch (value.trim().toLowerCase()) {
+            case "sync":
+                return SYNC;
+            case "async":
+            case "write-behind":
+            case "write_behind":
+                return WRITE_BEHIND;
+            default:
+                return GROUP_COMMIT;
+        }
+    }
+}
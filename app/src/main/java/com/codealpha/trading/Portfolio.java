@@ -0,0 +1,1065 @@
+package com.codealpha.trading;
+
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Manages the user's assets, including cash and stocks, and handles data
+ * persistence.
+ *
+ * <p>All money is held as whole cents in longs (see {@link Money}), so cash,
+ * cost bases and valuations stay exact over any number of trades and ticks.
+ *
+ * <p>Orders may be executed from many threads at once. Cash is
+ * reserved with a compare-and-set before a buy fills; holdings are split
+ * across lock stripes keyed by ticker, so trades in different stocks do not
+ * contend. Snapshots briefly take the state lock exclusively so that cash,
+ * holdings and the journal sequence they record always agree.
+ *
+ * <p>Once {@link #attach(Market) attached} to a market, the portfolio keeps
+ * running totals of market value and cost basis per stripe. Fills adjust them
+ * for the one holding involved and each tick adjusts them by the price move of
+ * the held stocks, so reading the totals never rescans the holdings. Being
+ * exact, the running totals never drift from a full revaluation.
+ */
+public class Portfolio implements MarketListener {
+    private static final String PORTFOLIO_FILE = "portfolio.dat";
+    private static final String JOURNAL_FILE = "portfolio.tx";
+    private static final String JSON_FILE = "portfolio.json"; // Imported on first start
+    private static final String JSON_JOURNAL_FILE = "portfolio.journal";
+    private static final long INITIAL_CASH_CENTS = 10_000_000; // $100,000.00
+    private static final int SNAPSHOT_INTERVAL = 100; // Journal records between snapshots
+    private static final int STRIPES = 64; // Power of two
+    private static final int REPLAY_CHUNK = 4096;
+
+    // Rough heap sizes on a 64-bit JVM with compressed oops, for footprint estimates
+    private static final int BASE_BYTES = 3 * 1024; // Portfolio, stripes, locks and an open store
+    private static final int HOLDING_BYTES = 128; // StockHolding, map entry and ticker
+
+    private final AtomicLong cashCents = new AtomicLong();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+
+    private final PortfolioStore store;
+    private final LongSupplier clock; // Epoch milliseconds stamped on fills
+    private final boolean quiet; // Report only errors while loading
+    private volatile long snapshotSequence;
+
+    private volatile Market market;
+    private MarketFeed.Subscription subscription; // Set when ticks arrive through a feed
+
+    /**
+     * Holdings whose tickers hash to the same stripe, with their share of the
+     * running valuation. Guarded by the stripe's monitor.
+     */
+    private static class Stripe {
+        final Map<String, StockHolding> holdings = new HashMap<>();
+        volatile long marketValueCents;
+        volatile long costBasisCents;
+        volatile boolean held; // !holdings.isEmpty(), readable without the monitor
+    }
+
+    public Portfolio() {
+        this(new PortfolioStore(PORTFOLIO_FILE, JOURNAL_FILE), Paths.get(JSON_FILE), Paths.get(JSON_JOURNAL_FILE));
+    }
+
+    public Portfolio(PortfolioStore store) {
+        this(store, null, null);
+    }
+
+    /**
+     * Opens the portfolio in {@code store}. If the store is still empty and
+     * {@code importFile} exists, the JSON portfolio in it (plus the JSON-lines
+     * journal {@code importJournal}, if any) is imported first.
+     */
+    public Portfolio(PortfolioStore store, Path importFile, Path importJournal) {
+        this(store, importFile, importJournal, false);
+    }
+
+    /**
+     * Opens the portfolio in {@code store} printing nothing but errors, for
+     * hosting many accounts in one process.
+     */
+    static Portfolio openQuietly(PortfolioStore store) {
+        return new Portfolio(store, null, null, true);
+    }
+
+    private Portfolio(PortfolioStore store, Path importFile, Path importJournal, boolean quiet) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.store = store;
+        this.clock = System::currentTimeMillis;
+        this.quiet = quiet;
+        loadData(importFile, importJournal);
+    }
+
+    private Portfolio(double cash, LongSupplier clock) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.store = PortfolioStore.inMemory();
+        this.clock = clock;
+        this.quiet = true;
+        try {
+            store.openJournal();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen in memory
+        }
+        cashCents.set(Money.toCents(cash));
+    }
+
+    /**
+     * A portfolio that starts with {@code cash} and keeps everything in
+     * memory, printing nothing, with fills stamped by {@code clock} instead of
+     * the wall clock. Used for backtests, where runs must be reproducible.
+     */
+    public static Portfolio inMemory(double cash, LongSupplier clock) {
+        return new Portfolio(cash, clock);
+    }
+
+    /**
+     * Restores cash and holdings from the binary snapshot and replays the
+     * journal records written after it. Older history stays on disk and is
+     * paged in by {@link #getTransactions()} when it is asked for.
+     */
+    private void loadData(Path importFile, Path importJournal) {
+        PortfolioSnapshot snapshot = null;
+        boolean corrupt = false;
+        try {
+            snapshot = store.readSnapshot();
+        } catch (IOException e) {
+            corrupt = true;
+            System.out.println(TradingApp.ANSI_RED + "Error loading portfolio snapshot: " + e.getMessage()
+                    + ". Rebuilding from journal." + TradingApp.ANSI_RESET);
+        }
+
+        long journaled;
+        try {
+            journaled = store.openJournal();
+        } catch (IOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Fatal Error: Could not open transaction journal! "
+                    + e.getMessage() + TradingApp.ANSI_RESET);
+            journaled = 0;
+        }
+
+        if (snapshot == null && !corrupt && journaled == 0 && importFile != null && Files.exists(importFile)) {
+            importJson(importFile, importJournal);
+            return;
+        }
+        if (snapshot == null) {
+            if (!corrupt && !quiet) {
+                System.out.println(TradingApp.ANSI_YELLOW + "No portfolio file found. Starting with a new portfolio."
+                        + TradingApp.ANSI_RESET);
+            }
+            resetState();
+            this.snapshotSequence = 0;
+        } else {
+            restore(snapshot);
+            store.restoreTickerStats(snapshot.tickers);
+        }
+
+        // Replay the journal tail written after the snapshot was taken
+        try {
+            for (long from = Math.min(snapshotSequence, journaled); from < journaled; from += REPLAY_CHUNK) {
+                for (Transaction t : store.read(from, (int) Math.min(REPLAY_CHUNK, journaled - from))) {
+                    applyTransaction(t);
+                    store.reindex(t);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Fatal Error: Could not replay transaction journal! "
+                    + e.getMessage() + TradingApp.ANSI_RESET);
+        }
+        if (snapshot == null || journaled > snapshotSequence) {
+            saveData();
+        }
+        if (snapshot != null && !quiet) {
+            System.out.println(
+                    TradingApp.ANSI_GREEN + "✔ Portfolio data loaded successfully." + TradingApp.ANSI_RESET);
+        }
+    }
+
+    private void resetState() {
+        cashCents.set(INITIAL_CASH_CENTS);
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.holdings.clear();
+                stripe.held = false;
+                stripe.marketValueCents = 0;
+                stripe.costBasisCents = 0;
+            }
+        }
+    }
+
+    private void restore(PortfolioSnapshot snapshot) {
+        cashCents.set(snapshot.cashCents);
+        for (Map.Entry<String, StockHolding> entry : snapshot.stocks.entrySet()) {
+            StockHolding holding = entry.getValue();
+            holding.stockId = -1;
+            holding.markCents = Money.share(holding.costCents, 1, holding.quantity);
+            Stripe stripe = stripeFor(entry.getKey());
+            stripe.holdings.put(entry.getKey(), holding);
+            stripe.held = true;
+        }
+        this.snapshotSequence = snapshot.journalSequence;
+    }
+
+    /**
+     * Imports a JSON portfolio into the empty store. The file's cash and
+     * holdings already reflect the history before its journal sequence (all
+     * of an old-style embedded list); that history is still replayed from a
+     * new portfolio first, only to work out the realized P&L of each sale.
+     * Records in a JSON-lines journal after the sequence are replayed on top
+     * of the file's state.
+     */
+    private void importJson(Path file, Path journal) {
+        resetState();
+        try {
+            PortfolioSnapshot snapshot = PortfolioJson.read(file, chunk -> {
+                for (Transaction t : chunk) {
+                    applyTransaction(t);
+                }
+                store.append(chunk);
+            });
+            long[] sequence = {store.getSequence()};
+            if (journal != null && Files.exists(journal)) {
+                PortfolioJson.readJournal(journal, chunk -> {
+                    for (Transaction t : chunk) {
+                        if (sequence[0]++ == snapshot.journalSequence) {
+                            resetState();
+                            restore(snapshot);
+                        }
+                        applyTransaction(t);
+                    }
+                    store.append(chunk);
+                });
+            }
+            if (sequence[0] <= snapshot.journalSequence) {
+                resetState();
+                restore(snapshot);
+            }
+            store.flush();
+        } catch (IOException | JsonParseException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error importing " + file + ": " + e.getMessage()
+                    + TradingApp.ANSI_RESET);
+            return;
+        }
+        saveData();
+        System.out.println(TradingApp.ANSI_GREEN + "✔ Portfolio data imported from " + file + "."
+                + TradingApp.ANSI_RESET);
+    }
+
+    /**
+     * Writes cash, holdings and the full history to {@code file} in the JSON
+     * layout of the original {@code portfolio.json}.
+     */
+    public void exportJson(Path file) throws IOException {
+        PortfolioSnapshot snapshot = snapshot();
+        PortfolioJson.write(file, snapshot, new TransactionHistory(store, snapshot.journalSequence));
+    }
+
+    private PortfolioSnapshot snapshot() {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        stateLock.writeLock().lock();
+        try {
+            snapshot.cashCents = cashCents.get();
+            snapshot.stocks = copyHoldings(new HashMap<>());
+            snapshot.journalSequence = store.getSequence();
+            snapshot.tickers = store.copyTickerStats();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes a snapshot of cash and holdings through the store, which makes
+     * sure the journal records it covers are durable first.
+     */
+    public void saveData() {
+        long start = Metrics.start();
+        PortfolioSnapshot snapshot = snapshot();
+        try {
+            store.writeSnapshot(snapshot);
+            this.snapshotSequence = snapshot.journalSequence;
+            Metrics.SNAPSHOT_SAVE.record(start);
+        } catch (IOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Fatal Error: Could not save portfolio data! " + e.getMessage()
+                    + TradingApp.ANSI_RESET);
+        }
+    }
+
+    /**
+     * Stops valuation updates, writes a final snapshot and releases the
+     * journal.
+     */
+    public void close() {
+        detach();
+        saveData();
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error closing transaction journal: " + e.getMessage()
+                    + TradingApp.ANSI_RESET);
+        }
+    }
+
+    /**
+     * Queues fills already applied in memory for the journal and returns the
+     * journal sequence to {@link #commit} once the locks are released.
+     * Callers hold the stripe lock of each ticker (or the state write lock)
+     * so per-stock order matches the journal. If the journal refuses them,
+     * the fills are reverted before the failure is thrown.
+     */
+    private long log(List<Transaction> fills, int[] stockIds) {
+        try {
+            return store.submit(fills);
+        } catch (IOException e) {
+            revert(fills, stockIds);
+            throw journalFailure(e);
+        }
+    }
+
+    /**
+     * Waits until the fills are durable (writing them itself in sync mode)
+     * outside every portfolio lock, then takes a snapshot if one is due. If
+     * the write fails the fills are reverted, and since the store then
+     * refuses every later write, memory never runs ahead of the journal by
+     * more than the failed batch.
+     */
+    private void commit(long sequence, List<Transaction> fills, int[] stockIds) {
+        if (sequence < 0) {
+            return;
+        }
+        try {
+            store.awaitCommit(sequence);
+        } catch (IOException e) {
+            revert(fills, stockIds);
+            throw journalFailure(e);
+        }
+        if (store.getMode() != PersistenceMode.MEMORY
+                && store.getSequence() - snapshotSequence >= SNAPSHOT_INTERVAL && snapshotting.compareAndSet(false, true)) {
+            try {
+                saveData();
+            } finally {
+                snapshotting.set(false);
+            }
+        }
+    }
+
+    private static UncheckedIOException journalFailure(IOException e) {
+        return new UncheckedIOException("Could not write transaction journal: " + e.getMessage(), e);
+    }
+
+    /**
+     * Undoes the cash and holding effects of fills, newest first. Each is the
+     * exact inverse of {@link #applyHolding} in cents, so the result does not
+     * depend on other fills reverted meanwhile.
+     */
+    private void revert(List<Transaction> fills, int[] stockIds) {
+        stateLock.readLock().lock();
+        try {
+            for (int i = fills.size() - 1; i >= 0; i--) {
+                Transaction t = fills.get(i);
+                boolean buy = t.type.equals("BUY");
+                Stripe stripe = stripeFor(t.ticker);
+                synchronized (stripe) {
+                    StockHolding holding = stripe.holdings.get(t.ticker);
+                    if (holding == null) {
+                        holding = new StockHolding(0, 0);
+                        holding.stockId = stockIds[i];
+                        holding.markCents = t.priceCents;
+                        stripe.holdings.put(t.ticker, holding);
+                    } else {
+                        stripe.marketValueCents -= holding.getMarketValueCents();
+                        stripe.costBasisCents -= holding.costCents;
+                    }
+                    long cost = buy ? t.totalCents : t.totalCents - t.realizedPnlCents;
+                    holding.quantity += buy ? -t.quantity : t.quantity;
+                    holding.costCents += buy ? -cost : cost;
+                    if (holding.quantity == 0 && holding.costCents == 0) {
+                        stripe.holdings.remove(t.ticker);
+                    } else {
+                        stripe.marketValueCents += holding.getMarketValueCents();
+                        stripe.costBasisCents += holding.costCents;
+                    }
+                    stripe.held = !stripe.holdings.isEmpty();
+                }
+                cashCents.addAndGet(buy ? t.totalCents : -t.totalCents);
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the cash and holding effects of a journaled transaction during
+     * startup replay.
+     */
+    private void applyTransaction(Transaction t) {
+        cashCents.addAndGet(t.type.equals("BUY") ? -t.totalCents : t.totalCents);
+        Stripe stripe = stripeFor(t.ticker);
+        synchronized (stripe) {
+            applyHolding(stripe, t, -1);
+        }
+    }
+
+    // Caller holds the stripe lock
+    private void applyHolding(Stripe stripe, Transaction t, int stockId) {
+        StockHolding holding = stripe.holdings.get(t.ticker);
+        if (holding != null) {
+            stripe.marketValueCents -= holding.getMarketValueCents();
+            stripe.costBasisCents -= holding.costCents;
+        }
+        if (t.type.equals("BUY")) {
+            if (holding != null) {
+                holding.quantity = Math.toIntExact((long) holding.quantity + t.quantity);
+                holding.costCents += t.totalCents;
+            } else {
+                holding = new StockHolding(t.quantity, t.totalCents);
+                holding.stockId = stockId;
+                stripe.holdings.put(t.ticker, holding);
+            }
+        } else if (holding != null) {
+            // The shares sold take their pro-rata share of the cost basis, so
+            // closing a position releases exactly what was paid for it
+            long cost = Money.share(holding.costCents, Math.min(t.quantity, holding.quantity), holding.quantity);
+            t.realizedPnlCents = t.totalCents - cost;
+            holding.costCents -= cost;
+            holding.quantity -= t.quantity;
+            if (holding.quantity <= 0) {
+                stripe.holdings.remove(t.ticker);
+                holding = null;
+            }
+        }
+        if (holding != null) {
+            holding.markCents = t.priceCents;
+            stripe.marketValueCents += holding.getMarketValueCents();
+            stripe.costBasisCents += holding.costCents;
+        }
+        stripe.held = !stripe.holdings.isEmpty();
+    }
+
+    // Caller holds the stripe lock
+    private static boolean fitsPosition(Stripe stripe, String ticker, int quantity) {
+        StockHolding holding = stripe.holdings.get(ticker);
+        return (holding == null ? 0L : holding.quantity) + quantity <= Integer.MAX_VALUE;
+    }
+
+    private static void checkQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive, got " + quantity);
+        }
+    }
+
+    private boolean reserveCash(long cents) {
+        while (true) {
+            long available = cashCents.get();
+            if (available < cents) {
+                return false;
+            }
+            if (cashCents.compareAndSet(available, available - cents)) {
+                return true;
+            }
+        }
+    }
+
+    private Stripe stripeFor(String ticker) {
+        int h = ticker.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Starts maintaining valuation against {@code market}: resolves every
+     * holding to its stock ID, values it at the current price and subscribes
+     * to ticks.
+     */
+    public void attach(Market market) {
+        attach(market, null);
+    }
+
+    /**
+     * Like {@link #attach(Market)}, but takes ticks from {@code feed} on a
+     * conflated subscription of their own, so valuation never holds up the
+     * market. A {@code null} feed listens to the market directly.
+     */
+    public void attach(Market market, MarketFeed feed) {
+        stateLock.writeLock().lock();
+        try {
+            detachLocked();
+            this.market = market;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    for (Map.Entry<String, StockHolding> entry : stripe.holdings.entrySet()) {
+                        StockHolding holding = entry.getValue();
+                        holding.stockId = market.getStockId(entry.getKey());
+                        if (holding.stockId >= 0) {
+                            holding.markCents = market.getPriceCents(holding.stockId);
+                        }
+                    }
+                    revalue(stripe);
+                }
+            }
+            if (feed != null) {
+                subscription = feed.subscribe("valuation", this, true);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        if (feed == null) {
+            market.addListener(this);
+        }
+    }
+
+    /**
+     * Stops taking ticks from the attached market or feed, if any. Holdings
+     * keep the value of the last tick seen.
+     */
+    public void detach() {
+        stateLock.writeLock().lock();
+        try {
+            detachLocked();
+            market = null;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the state write lock
+    private void detachLocked() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        } else if (market != null) {
+            market.removeListener(this);
+        }
+    }
+
+    /**
+     * Rough heap bytes held by this portfolio: its fixed structures, each
+     * holding, and the trade stats and unflushed records of its store. The
+     * journal's direct write buffer and, outside sync mode, the stack of its
+     * flusher thread are not counted.
+     */
+    public long estimateFootprint() {
+        long holdings = 0;
+        for (Stripe stripe : stripes) {
+            if (stripe.held) {
+                synchronized (stripe) {
+                    holdings += stripe.holdings.size();
+                }
+            }
+        }
+        return BASE_BYTES + holdings * HOLDING_BYTES + store.estimateFootprint();
+    }
+
+    // Caller holds the stripe lock
+    private void revalue(Stripe stripe) {
+        long value = 0;
+        long cost = 0;
+        for (StockHolding holding : stripe.holdings.values()) {
+            value += holding.getMarketValueCents();
+            cost += holding.costCents;
+        }
+        stripe.marketValueCents = value;
+        stripe.costBasisCents = cost;
+    }
+
+    @Override
+    public void onTick(MarketSnapshot snapshot) {
+        long start = Metrics.start();
+        for (Stripe stripe : stripes) {
+            if (!stripe.held) {
+                continue; // Most stripes of a small portfolio are empty; skip them without locking
+            }
+            synchronized (stripe) {
+                long delta = 0;
+                for (StockHolding holding : stripe.holdings.values()) {
+                    if (holding.stockId >= 0) {
+                        long price = snapshot.getPriceCents(holding.stockId);
+                        delta += holding.quantity * (price - holding.markCents);
+                        holding.markCents = price;
+                    }
+                }
+                stripe.marketValueCents += delta;
+            }
+        }
+        Metrics.REVALUE.record(start);
+    }
+
+    public long getCashCents() {
+        return cashCents.get();
+    }
+
+    public double getCash() {
+        return Money.toDollars(getCashCents());
+    }
+
+    /**
+     * Market value of all holdings at the latest tick, in cents.
+     */
+    public long getMarketValueCents() {
+        long value = 0;
+        for (Stripe stripe : stripes) {
+            value += stripe.marketValueCents;
+        }
+        return value;
+    }
+
+    public double getMarketValue() {
+        return Money.toDollars(getMarketValueCents());
+    }
+
+    public long getCostBasisCents() {
+        long cost = 0;
+        for (Stripe stripe : stripes) {
+            cost += stripe.costBasisCents;
+        }
+        return cost;
+    }
+
+    public double getCostBasis() {
+        return Money.toDollars(getCostBasisCents());
+    }
+
+    public double getUnrealizedPnl() {
+        return Money.toDollars(getMarketValueCents() - getCostBasisCents());
+    }
+
+    /**
+     * Copy of the holdings, sorted by ticker.
+     */
+    public SortedMap<String, StockHolding> getHoldings() {
+        return copyHoldings(new TreeMap<>());
+    }
+
+    /**
+     * Copy of one holding, or {@code null} when none of the stock is owned.
+     */
+    public StockHolding getHolding(String ticker) {
+        Stripe stripe = stripeFor(ticker);
+        synchronized (stripe) {
+            StockHolding holding = stripe.holdings.get(ticker);
+            return holding == null ? null : new StockHolding(holding);
+        }
+    }
+
+    private <M extends Map<String, StockHolding>> M copyHoldings(M into) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Map.Entry<String, StockHolding> entry : stripe.holdings.entrySet()) {
+                    into.put(entry.getKey(), new StockHolding(entry.getValue()));
+                }
+            }
+        }
+        return into;
+    }
+
+    /**
+     * The transaction history as of this call, oldest first. Records are
+     * paged in from the journal as they are read.
+     */
+    public List<Transaction> getTransactions() {
+        return new TransactionHistory(store, store.getSequence());
+    }
+
+    /**
+     * Newest-first page of transactions matching {@code query}. Start with
+     * {@link TransactionPage#FIRST} and pass each page's
+     * {@link TransactionPage#nextCursor} to get the next one.
+     */
+    public TransactionPage queryTransactions(TransactionQuery query, long cursor, int limit) {
+        try {
+            return store.query(query, cursor, limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read transaction history", e);
+        }
+    }
+
+    /**
+     * Trade count, volume, VWAP and realized P&L for one ticker, or
+     * {@code null} if it was never traded.
+     */
+    public TickerStats getTickerStats(String ticker) {
+        return store.getTickerStats(ticker.trim().toUpperCase());
+    }
+
+    public PersistenceMode getPersistenceMode() {
+        return store.getMode();
+    }
+
+    public FlushStats getPersistenceStats() {
+        return store.getStats();
+    }
+
+    private long now() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Buys at the current market price without printing anything. Returns the
+     * fill, or {@code null} if the ticker is unknown, cash is insufficient or
+     * the position would exceed {@code Integer.MAX_VALUE} shares. Safe to
+     * call from many threads at once.
+     *
+     * @throws IllegalArgumentException if {@code quantity} is not positive
+     * @throws UncheckedIOException if the journal cannot be written; the buy
+     *         is then undone
+     */
+    public Transaction executeBuy(String ticker, int quantity, Market market) {
+        checkQuantity(quantity);
+        long start = Metrics.start();
+        int stockId = market.getStockId(ticker);
+        if (stockId < 0) {
+            Metrics.REJECTS.increment();
+            return null;
+        }
+        String symbol = market.getTicker(stockId);
+        Transaction t;
+        long sequence;
+        stateLock.readLock().lock();
+        try {
+            t = new Transaction(now(), "BUY", symbol, quantity, market.getPriceCents(stockId));
+            Stripe stripe = stripeFor(symbol);
+            synchronized (stripe) {
+                if (!fitsPosition(stripe, symbol, quantity) || !reserveCash(t.totalCents)) {
+                    Metrics.REJECTS.increment();
+                    return null;
+                }
+                applyHolding(stripe, t, stockId);
+                sequence = log(List.of(t), new int[] {stockId});
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        commit(sequence, List.of(t), new int[] {stockId});
+        Metrics.FILLS.increment();
+        Metrics.TRADE_BUY.record(start);
+        return t;
+    }
+
+    /**
+     * Sells at the current market price without printing anything. Returns
+     * the fill, or {@code null} if the ticker is unknown or not enough shares
+     * are owned. Safe to call from many threads at once.
+     *
+     * @throws IllegalArgumentException if {@code quantity} is not positive
+     * @throws UncheckedIOException if the journal cannot be written; the sale
+     *         is then undone
+     */
+    public Transaction executeSell(String ticker, int quantity, Market market) {
+        checkQuantity(quantity);
+        long start = Metrics.start();
+        int stockId = market.getStockId(ticker);
+        if (stockId < 0) {
+            Metrics.REJECTS.increment();
+            return null;
+        }
+        String symbol = market.getTicker(stockId);
+        Transaction t;
+        long sequence;
+        stateLock.readLock().lock();
+        try {
+            Stripe stripe = stripeFor(symbol);
+            synchronized (stripe) {
+                StockHolding holding = stripe.holdings.get(symbol);
+                if (holding == null || holding.quantity < quantity) {
+                    Metrics.REJECTS.increment();
+                    return null;
+                }
+                t = new Transaction(now(), "SELL", symbol, quantity, market.getPriceCents(stockId));
+                applyHolding(stripe, t, stockId);
+                cashCents.addAndGet(t.totalCents);
+                sequence = log(List.of(t), new int[] {stockId});
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        commit(sequence, List.of(t), new int[] {stockId});
+        Metrics.FILLS.increment();
+        Metrics.TRADE_SELL.record(start);
+        return t;
+    }
+
+    /**
+     * Executes a basket of orders all-or-nothing at one consistent set of
+     * market prices. The legs are validated in a single pass, in order,
+     * against cash and holdings (so sells earlier in the basket can fund later
+     * buys); if any leg fails nothing is applied. Otherwise every fill is
+     * applied and the whole batch goes to the journal as one write and one
+     * flush.
+     *
+     * @throws IllegalArgumentException naming the first leg that cannot fill
+     * @throws UncheckedIOException if the journal cannot be written; the
+     *         whole basket is then undone
+     */
+    public List<Transaction> executeBatch(List<Order> orders, Market market) {
+        long start = Metrics.start();
+        long timestamp = now();
+        List<Transaction> fills = new ArrayList<>(orders.size());
+        int[] stockIds = resolve(orders, market);
+        long[] priceCents = new long[orders.size()];
+        market.getSnapshot().copyPriceCents(stockIds, stockIds.length, priceCents);
+        long sequence;
+
+        stateLock.writeLock().lock();
+        try {
+            long cash = cashCents.get();
+            Map<String, Integer> owned = new HashMap<>();
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                if (!order.isMarket()) {
+                    throw new IllegalArgumentException("Leg " + (i + 1) + ": only market orders can be batched");
+                }
+                if (order.quantity <= 0) {
+                    throw new IllegalArgumentException("Leg " + (i + 1) + ": quantity must be positive, got "
+                            + order.quantity);
+                }
+                int stockId = stockIds[i];
+                if (stockId < 0) {
+                    throw new IllegalArgumentException("Leg " + (i + 1) + ": stock '" + order.ticker + "' not found");
+                }
+                String symbol = market.getTicker(stockId);
+                Transaction t = new Transaction(timestamp, order.type, symbol, order.quantity, priceCents[i]);
+                long cents = t.totalCents;
+
+                Integer shares = owned.get(symbol);
+                if (shares == null) {
+                    StockHolding holding = getHolding(symbol);
+                    shares = holding == null ? 0 : holding.quantity;
+                }
+                if (order.type.equals("BUY")) {
+                    if (cash < cents) {
+                        throw new IllegalArgumentException(String.format(
+                                "Leg %d: not enough cash to buy %d %s; need $%,.2f but only $%,.2f is left",
+                                i + 1, order.quantity, symbol, t.getTotal(), Money.toDollars(cash)));
+                    }
+                    if ((long) shares + order.quantity > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException(String.format(
+                                "Leg %d: cannot hold more than %,d shares of %s", i + 1, Integer.MAX_VALUE, symbol));
+                    }
+                    cash -= cents;
+                    shares += order.quantity;
+                } else {
+                    if (shares < order.quantity) {
+                        throw new IllegalArgumentException(String.format(
+                                "Leg %d: cannot sell %d %s; only %d would be owned", i + 1, order.quantity, symbol,
+                                shares));
+                    }
+                    cash += cents;
+                    shares -= order.quantity;
+                }
+                owned.put(symbol, shares);
+                fills.add(t);
+            }
+
+            cashCents.set(cash);
+            for (int i = 0; i < fills.size(); i++) {
+                Transaction t = fills.get(i);
+                Stripe stripe = stripeFor(t.ticker);
+                synchronized (stripe) {
+                    applyHolding(stripe, t, stockIds[i]);
+                }
+            }
+            sequence = log(fills, stockIds);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        commit(sequence, fills, stockIds);
+        Metrics.FILLS.add(fills.size());
+        Metrics.TRADE_BATCH.record(start);
+        return fills;
+    }
+
+    /**
+     * Executes each order independently at one consistent set of market
+     * prices, in order. Unlike {@link #executeBatch} a leg that cannot fill
+     * does not stop the others; its entry in the returned list is
+     * {@code null}, as is that of a leg with a quantity that is not positive.
+     * All fills go to the journal as one write and one flush.
+     *
+     * @throws UncheckedIOException if the journal cannot be written; every
+     *         fill is then undone
+     */
+    public List<Transaction> executeAll(List<Order> orders, Market market) {
+        return executeAll(orders, market, market.getSnapshot());
+    }
+
+    /**
+     * Like {@link #executeAll(List, Market)}, but fills at {@code prices},
+     * e.g. the tick that triggered the orders. Should the engine reuse that
+     * snapshot for a later tick while the prices are read, they all come from
+     * the later tick instead.
+     */
+    public List<Transaction> executeAll(List<Order> orders, Market market, MarketSnapshot prices) {
+        long start = Metrics.start();
+        long timestamp = now();
+        List<Transaction> results = new ArrayList<>(orders.size());
+        List<Transaction> fills = new ArrayList<>(orders.size());
+        int[] legIds = resolve(orders, market);
+        long[] priceCents = new long[orders.size()];
+        prices.copyPriceCents(legIds, legIds.length, priceCents);
+        int[] stockIds = new int[orders.size()];
+        long sequence;
+
+        stateLock.writeLock().lock();
+        try {
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                int stockId = legIds[i];
+                Transaction t = null;
+                if (stockId >= 0 && order.quantity > 0) {
+                    String symbol = market.getTicker(stockId);
+                    t = new Transaction(timestamp, order.type, symbol, order.quantity, priceCents[i]);
+                    if (!fill(t, stockId)) {
+                        t = null;
+                    }
+                }
+                results.add(t);
+                if (t != null) {
+                    stockIds[fills.size()] = stockId;
+                    fills.add(t);
+                }
+            }
+            sequence = fills.isEmpty() ? -1 : log(fills, stockIds);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        commit(sequence, fills, stockIds);
+        Metrics.FILLS.add(fills.size());
+        Metrics.REJECTS.add(orders.size() - fills.size());
+        Metrics.TRADE_BATCH.record(start);
+        return results;
+    }
+
+    // Stock ID of each leg, or -1 for an unknown ticker
+    private static int[] resolve(List<Order> orders, Market market) {
+        int[] stockIds = new int[orders.size()];
+        for (int i = 0; i < stockIds.length; i++) {
+            stockIds[i] = market.getStockId(orders.get(i).ticker);
+        }
+        return stockIds;
+    }
+
+    // Applies one fill if cash or shares allow; caller holds the state lock
+    private boolean fill(Transaction t, int stockId) {
+        Stripe stripe = stripeFor(t.ticker);
+        if (t.type.equals("BUY")) {
+            synchronized (stripe) {
+                if (!fitsPosition(stripe, t.ticker, t.quantity) || !reserveCash(t.totalCents)) {
+                    return false;
+                }
+                applyHolding(stripe, t, stockId);
+            }
+            return true;
+        }
+        synchronized (stripe) {
+            StockHolding holding = stripe.holdings.get(t.ticker);
+            if (holding == null || holding.quantity < t.quantity) {
+                return false;
+            }
+            applyHolding(stripe, t, stockId);
+        }
+        cashCents.addAndGet(t.totalCents);
+        return true;
+    }
+
+    public boolean buyStock(String ticker, int quantity, Market market) {
+        Stock stock = market.getStock(ticker);
+        if (stock == null) {
+            System.out.println(TradingApp.ANSI_RED + "Error: Stock '" + ticker.toUpperCase() + "' not found."
+                    + TradingApp.ANSI_RESET);
+            return false;
+        }
+        Transaction t;
+        try {
+            t = executeBuy(ticker, quantity, market);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error: " + e.getMessage() + TradingApp.ANSI_RESET);
+            return false;
+        }
+        if (t == null) {
+            long cost = Money.times(stock.getPriceCents(), quantity);
+            if (cost <= getCashCents()) {
+                System.out.println(TradingApp.ANSI_RED + "Error: A position in " + stock.ticker
+                        + " cannot exceed " + String.format("%,d", Integer.MAX_VALUE) + " shares."
+                        + TradingApp.ANSI_RESET);
+                return false;
+            }
+            System.out.printf(TradingApp.ANSI_RED + "Error: Not enough cash. You need $%,.2f but only have $%,.2f.%n"
+                    + TradingApp.ANSI_RESET, Money.toDollars(cost), getCash());
+            return false;
+        }
+
+        System.out.printf(
+                TradingApp.ANSI_GREEN + "%n✔ Successfully bought %d shares of %s for $%,.2f%n" + TradingApp.ANSI_RESET,
+                quantity, t.ticker, t.getTotal());
+        return true;
+    }
+
+    public boolean sellStock(String ticker, int quantity, Market market) {
+        Transaction t;
+        try {
+            t = executeSell(ticker, quantity, market);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error: " + e.getMessage() + TradingApp.ANSI_RESET);
+            return false;
+        }
+        if (t == null) {
+            StockHolding holding = getHolding(ticker);
+            int ownedQty = (holding == null) ? 0 : holding.quantity;
+            System.out.printf(TradingApp.ANSI_RED + "Error: You cannot sell %d shares of %s. You only own %d.%n"
+                    + TradingApp.ANSI_RESET, quantity, ticker, ownedQty);
+            return false;
+        }
+
+        System.out.printf(
+                TradingApp.ANSI_GREEN + "%n✔ Successfully sold %d shares of %s for $%,.2f%n" + TradingApp.ANSI_RESET,
+                quantity, t.ticker, t.getTotal());
+        return true;
+    }
+
+    public double getTotalValue(Market market) {
+        return Money.toDollars(getTotalValueCents(market));
+    }
+
+    /**
+     * Cash plus holdings valued at {@code market}'s prices, in cents.
+     * Holdings of tickers that {@code market} does not list are left out.
+     */
+    public long getTotalValueCents(Market market) {
+        long start = Metrics.start();
+        if (market == this.market) {
+            long value = getCashCents() + getMarketValueCents();
+            Metrics.VALUATION.record(start);
+            return value;
+        }
+        long stockValue = 0;
+        for (Map.Entry<String, StockHolding> entry : copyHoldings(new HashMap<>()).entrySet()) {
+            int stockId = market.getStockId(entry.getKey());
+            if (stockId >= 0) {
+                stockValue += Money.times(market.getPriceCents(stockId), entry.getValue().quantity);
+            }
+        }
+        long value = getCashCents() + stockValue;
+        Metrics.VALUATION.record(start);
+        return value;
+    }
+}
@@ -0,0 +1,231 @@
+package com.codealpha.trading;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JSON import and export of a whole portfolio, kept for compatibility with
+ * {@code portfolio.json} files written before the binary format. Both
+ * directions stream, so the history never has to fit in memory at once.
+ * Amounts are dollars in the file and are converted to and from cents here.
+ */
+final class PortfolioJson {
+    private static final int CHUNK_SIZE = 4096;
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Receives history records in file order, a chunk at a time.
+     */
+    interface HistorySink {
+        void accept(List<Transaction> chunk) throws IOException;
+    }
+
+    /**
+     * A holding as the file stores it.
+     */
+    private static final class JsonHolding {
+        int quantity;
+        double avgPrice;
+    }
+
+    private PortfolioJson() {
+    }
+
+    /**
+     * Reads cash, holdings and journal sequence from a JSON portfolio file.
+     * An embedded {@code transactions} list (the original file format) is
+     * streamed to {@code history}; the cash and holdings of such a file
+     * already reflect all of it, so its journal sequence is the list length.
+     */
+    static PortfolioSnapshot read(Path file, HistorySink history) throws IOException {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        long embedded = 0;
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "cash":
+                        snapshot.cashCents = Money.toCents(reader.nextDouble());
+                        break;
+                    case "stocks":
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            String ticker = reader.nextName();
+                            JsonHolding holding = GSON.fromJson(reader, JsonHolding.class);
+                            snapshot.stocks.put(ticker, new StockHolding(holding.quantity,
+                                    Money.toCents(holding.quantity * holding.avgPrice)));
+                        }
+                        reader.endObject();
+                        break;
+                    case "journalSequence":
+                        snapshot.journalSequence = reader.nextLong();
+                        break;
+                    case "transactions":
+                        List<Transaction> chunk = new ArrayList<>();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            chunk.add(readTransaction(reader));
+                            embedded++;
+                            if (chunk.size() == CHUNK_SIZE) {
+                                history.accept(chunk);
+                                chunk = new ArrayList<>();
+                            }
+                        }
+                        reader.endArray();
+                        if (!chunk.isEmpty()) {
+                            history.accept(chunk);
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+        if (embedded > 0 && snapshot.journalSequence == 0) {
+            snapshot.journalSequence = embedded;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Streams a JSON-lines journal (one transaction per line) to
+     * {@code history}, stopping at the first torn or unreadable line.
+     */
+    static void readJournal(Path file, HistorySink history) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Transaction> chunk = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Transaction t;
+                try (JsonReader lineReader = new JsonReader(new StringReader(line))) {
+                    t = readTransaction(lineReader);
+                } catch (IOException | IllegalStateException | JsonParseException e) {
+                    break;
+                }
+                chunk.add(t);
+                if (chunk.size() == CHUNK_SIZE) {
+                    history.accept(chunk);
+                    chunk = new ArrayList<>();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                history.accept(chunk);
+            }
+        }
+    }
+
+    /**
+     * Writes cash, holdings and the full history in the original
+     * {@code portfolio.json} layout.
+     */
+    static void write(Path file, PortfolioSnapshot snapshot, List<Transaction> history) throws IOException {
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("cash").value(Money.toDollars(snapshot.cashCents));
+            writer.name("stocks").beginObject();
+            for (Map.Entry<String, StockHolding> entry : new TreeMap<>(snapshot.stocks).entrySet()) {
+                writer.name(entry.getKey()).beginObject();
+                writer.name("quantity").value(entry.getValue().quantity);
+                writer.name("avgPrice").value(entry.getValue().getAvgPrice());
+                writer.endObject();
+            }
+            writer.endObject();
+            writer.name("transactions").beginArray();
+            for (Transaction t : history) {
+                writeTransaction(writer, t);
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+    }
+
+    /**
+     * Reads one transaction. Timestamps may be epoch milliseconds or the
+     * original {@code yyyy-MM-dd HH:mm:ss} local time.
+     */
+    private static Transaction readTransaction(JsonReader reader) throws IOException {
+        long timestamp = 0;
+        String type = null;
+        String ticker = null;
+        int quantity = 0;
+        double price = 0;
+        Double total = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "timestamp":
+                    if (reader.peek() == JsonToken.STRING) {
+                        try {
+                            timestamp = Transaction.parseTimestamp(reader.nextString());
+                        } catch (DateTimeParseException e) {
+                            throw new JsonParseException("Invalid timestamp: " + e.getParsedString(), e);
+                        }
+                    } else {
+                        timestamp = reader.nextLong();
+                    }
+                    break;
+                case "type":
+                    type = reader.nextString();
+                    break;
+                case "ticker":
+                    ticker = reader.nextString();
+                    break;
+                case "quantity":
+                    quantity = reader.nextInt();
+                    break;
+                case "price":
+                    price = reader.nextDouble();
+                    break;
+                case "total":
+                    total = reader.nextDouble();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (type == null || ticker == null) {
+            throw new JsonParseException("Transaction is missing its type or ticker");
+        }
+        Transaction t = new Transaction(timestamp, type, ticker, quantity, Money.toCents(price));
+        if (total != null) {
+            t.totalCents = Money.toCents(total);
+        }
+        return t;
+    }
+
+    private static void writeTransaction(JsonWriter writer, Transaction t) throws IOException {
+        writer.beginObject();
+        writer.name("timestamp").value(t.formatTimestamp());
+        writer.name("type").value(t.type);
+        writer.name("ticker").value(t.ticker);
+        writer.name("quantity").value(t.quantity);
+        writer.name("price").value(t.getPrice());
+        writer.name("total").value(t.getTotal());
+        writer.endObject();
+    }
+}
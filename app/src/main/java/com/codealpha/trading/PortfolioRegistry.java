@@ -0,0 +1,380 @@
+package com.codealpha.trading;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Hosts many accounts' portfolios in one process against one shared
+ * {@link Market}.
+ *
+ * <p>Accounts are opened lazily on first use and kept in access order. Once
+ * more than {@code capacity} are open, the least recently used ones that
+ * nobody holds a {@link Lease} on are saved and closed. An account being
+ * closed cannot be reopened until its final snapshot is written, so its files
+ * are never open twice.
+ *
+ * <p>Each account has its own snapshot and journal, named after the account
+ * and spread by a hash of its ID over {@code shards} subdirectories of the
+ * root ({@code shard-00}, {@code shard-01}, ...), so no directory holds more
+ * than its share of the files. The shard count is recorded in the root the
+ * first time and must not change afterwards.
+ *
+ * <p>Every open account listens to the market for valuation, and outside
+ * {@link PersistenceMode#SYNC} mode its store runs a flusher thread, so
+ * {@code capacity} bounds the threads and file handles in use as well as
+ * the heap.
+ */
+public class PortfolioRegistry implements Closeable {
+    private static final Pattern ACCOUNT_ID = Pattern.compile("[a-z0-9_-][a-z0-9._-]{0,63}");
+    private static final String SHARDS_FILE = "shards";
+
+    private final Market market;
+    private final Path root;
+    private final int shards;
+    private final int capacity;
+    private final PersistenceMode mode;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Account> open = new LinkedHashMap<>(16, 0.75f, true); // LRU first
+    private final Map<String, Account> closing = new HashMap<>();
+    private long loads;
+    private long evictions;
+    private boolean closed;
+
+    public PortfolioRegistry(Market market, Path root, int shards, int capacity) throws IOException {
+        this(market, root, shards, capacity, PersistenceMode.parse(System.getProperty("portfolio.persistence")));
+    }
+
+    /**
+     * @param shards   number of shard directories, used only when the root
+     *                 is new
+     * @param capacity accounts kept open at once, not counting ones in use
+     *                 beyond it
+     */
+    public PortfolioRegistry(Market market, Path root, int shards, int capacity, PersistenceMode mode)
+            throws IOException {
+        if (shards < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Shards and capacity must be positive, got " + shards + " and "
+                    + capacity);
+        }
+        if (mode == PersistenceMode.MEMORY) {
+            throw new IllegalArgumentException("Registry accounts must be persisted");
+        }
+        this.market = market;
+        this.root = root;
+        this.capacity = capacity;
+        this.mode = mode;
+        this.shards = readShards(root, shards);
+    }
+
+    private static int readShards(Path root, int shards) throws IOException {
+        Path file = root.resolve(SHARDS_FILE);
+        if (Files.exists(file)) {
+            String text = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).trim();
+            try {
+                int recorded = Integer.parseInt(text);
+                if (recorded > 0) {
+                    return recorded;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IOException("Invalid shard count '" + text + "' in " + file);
+        }
+        Files.createDirectories(root);
+        for (int shard = 0; shard < shards; shard++) {
+            Files.createDirectories(root.resolve(shardName(shard)));
+        }
+        Files.write(file, (shards + "\n").getBytes(StandardCharsets.US_ASCII));
+        return shards;
+    }
+
+    /**
+     * Opens {@code accountId} (any case) if needed and pins it open until the
+     * lease is closed.
+     *
+     * @throws IllegalArgumentException for IDs that are not 1-64 letters,
+     *                                  digits, {@code .}, {@code _} or
+     *                                  {@code -}
+     */
+    public Lease acquire(String accountId) {
+        String id = normalize(accountId);
+        Account account;
+        while (true) {
+            Account previous;
+            synchronized (lock) {
+                if (closed) {
+                    throw new IllegalStateException("Portfolio registry is closed");
+                }
+                previous = closing.get(id);
+                if (previous == null) {
+                    account = open.get(id);
+                    if (account == null) {
+                        account = new Account(id);
+                        open.put(id, account);
+                    }
+                    account.pins++;
+                    break;
+                }
+            }
+            previous.awaitClosed();
+        }
+        try {
+            account.load();
+        } catch (RuntimeException e) {
+            release(account);
+            throw e;
+        }
+        evictIdle();
+        return new Lease(account);
+    }
+
+    /**
+     * Runs {@code action} on the account's portfolio while it is pinned open.
+     */
+    public <T> T withAccount(String accountId, Function<Portfolio, T> action) {
+        try (Lease lease = acquire(accountId)) {
+            return action.apply(lease.getPortfolio());
+        }
+    }
+
+    private void release(Account account) {
+        synchronized (lock) {
+            account.pins--;
+            if (account.portfolio == null && account.pins == 0 && open.get(account.id) == account) {
+                open.remove(account.id); // Failed to load; let the next caller retry
+            }
+        }
+        evictIdle();
+    }
+
+    /**
+     * Closes least recently used accounts nobody holds until at most
+     * {@code capacity} are open.
+     */
+    private void evictIdle() {
+        List<Account> victims = new ArrayList<>();
+        synchronized (lock) {
+            int excess = open.size() - capacity;
+            Iterator<Account> it = open.values().iterator();
+            while (excess > 0 && it.hasNext()) {
+                Account account = it.next();
+                if (account.pins == 0) {
+                    it.remove();
+                    closing.put(account.id, account);
+                    victims.add(account);
+                    excess--;
+                }
+            }
+            evictions += victims.size();
+        }
+        for (Account account : victims) {
+            account.close();
+        }
+    }
+
+    /**
+     * Whether an account has been saved before, whether or not it is open.
+     */
+    public boolean exists(String accountId) {
+        String id = normalize(accountId);
+        synchronized (lock) {
+            if (open.containsKey(id)) {
+                return true;
+            }
+        }
+        return Files.exists(snapshotPath(id));
+    }
+
+    public int getOpenCount() {
+        synchronized (lock) {
+            return open.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Accounts opened from disk so far, including reopens after eviction.
+     */
+    public long getLoads() {
+        synchronized (lock) {
+            return loads;
+        }
+    }
+
+    public long getEvictions() {
+        synchronized (lock) {
+            return evictions;
+        }
+    }
+
+    /**
+     * Estimated heap bytes held by the open accounts; see
+     * {@link Portfolio#estimateFootprint()}.
+     */
+    public long getFootprint() {
+        List<Account> accounts;
+        synchronized (lock) {
+            accounts = new ArrayList<>(open.values());
+        }
+        long bytes = 0;
+        for (Account account : accounts) {
+            Portfolio portfolio = account.portfolio;
+            if (portfolio != null) {
+                bytes += portfolio.estimateFootprint();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        int count = getOpenCount();
+        long bytes = getFootprint();
+        return String.format("%,d of %,d accounts open over %d shards, ~%,d KB (~%,d bytes each), %,d loads, "
+                + "%,d evictions", count, capacity, shards, bytes / 1024, count == 0 ? 0 : bytes / count,
+                getLoads(), getEvictions());
+    }
+
+    /**
+     * Saves and closes every open account. Leases still held become unusable.
+     */
+    @Override
+    public void close() {
+        List<Account> accounts;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            accounts = new ArrayList<>(open.values());
+            open.clear();
+        }
+        for (Account account : accounts) {
+            account.close();
+        }
+    }
+
+    private static String normalize(String accountId) {
+        String id = accountId.trim().toLowerCase();
+        if (!ACCOUNT_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid account ID '" + accountId
+                    + "'; use 1-64 letters, digits, '.', '_' or '-'");
+        }
+        return id;
+    }
+
+    private Path shardDirectory(String id) {
+        int h = id.hashCode();
+        return root.resolve(shardName(Math.floorMod(h ^ (h >>> 16), shards)));
+    }
+
+    private Path snapshotPath(String id) {
+        return shardDirectory(id).resolve(id + ".dat");
+    }
+
+    private static String shardName(int shard) {
+        return String.format("shard-%02d", shard);
+    }
+
+    /**
+     * Pins an account open. Close it when done so the account can be evicted.
+     */
+    public final class Lease implements AutoCloseable {
+        private final Account account;
+        private boolean released;
+
+        private Lease(Account account) {
+            this.account = account;
+        }
+
+        public String getAccountId() {
+            return account.id;
+        }
+
+        public Portfolio getPortfolio() {
+            return account.portfolio;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                release(account);
+            }
+        }
+    }
+
+    private final class Account {
+        final String id;
+        int pins; // Guarded by the registry lock
+        volatile Portfolio portfolio;
+        private boolean closed;
+
+        Account(String id) {
+            this.id = id;
+        }
+
+        synchronized void load() {
+            if (portfolio != null) {
+                return;
+            }
+            Path directory = shardDirectory(id);
+            PortfolioStore store = new PortfolioStore(directory.resolve(id + ".dat").toString(),
+                    directory.resolve(id + ".tx").toString(), mode);
+            Portfolio loaded = Portfolio.openQuietly(store);
+            loaded.attach(market);
+            portfolio = loaded;
+            synchronized (lock) {
+                loads++;
+            }
+        }
+
+        synchronized void close() {
+            try {
+                if (portfolio != null) {
+                    portfolio.close();
+                    portfolio = null;
+                }
+            } finally {
+                closed = true;
+                notifyAll();
+                synchronized (lock) {
+                    closing.remove(id, this);
+                }
+            }
+        }
+
+        synchronized void awaitClosed() {
+            boolean interrupted = false;
+            while (!closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
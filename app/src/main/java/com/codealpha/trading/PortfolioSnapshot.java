@@ -0,0 +1,78 @@
+package com.codealpha.trading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cash, holdings and per-ticker trade aggregates as of a journal sequence.
+ * {@code journalSequence} is the number of journal records already folded
+ * into the snapshot.
+ *
+ * <p>Binary layout: a 32-byte header (magic, version, journal sequence, cash in cents,
+ * holding count, ticker count), one {@link RecordCodec#HOLDING_BYTES} record
+ * per holding, one {@link RecordCodec#TICKER_STATS_BYTES} record per traded
+ * ticker, then a CRC32C of everything before it.
+ */
+final class PortfolioSnapshot {
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 32;
+
+    long cashCents;
+    Map<String, StockHolding> stocks = new HashMap<>();
+    Map<String, TickerStats> tickers = new HashMap<>();
+    long journalSequence;
+
+    ByteBuffer encode() {
+        int length = HEADER_BYTES + stocks.size() * RecordCodec.HOLDING_BYTES
+                + tickers.size() * RecordCodec.TICKER_STATS_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(length + Integer.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(journalSequence).putLong(cashCents).putInt(stocks.size())
+                .putInt(tickers.size());
+        for (Map.Entry<String, StockHolding> entry : stocks.entrySet()) {
+            RecordCodec.putHolding(buffer, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, TickerStats> entry : tickers.entrySet()) {
+            RecordCodec.putTickerStats(buffer, entry.getKey(), entry.getValue());
+        }
+        buffer.putInt(RecordCodec.checksum(buffer, 0, length));
+        return buffer.flip();
+    }
+
+    static PortfolioSnapshot decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES + Integer.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a portfolio snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4));
+        }
+        int count = buffer.getInt(24);
+        int tickerCount = buffer.getInt(28);
+        if (count < 0 || count > buffer.remaining() / RecordCodec.HOLDING_BYTES || tickerCount < 0
+                || tickerCount > buffer.remaining() / RecordCodec.TICKER_STATS_BYTES) {
+            throw new IOException("Snapshot is corrupt");
+        }
+        int length = HEADER_BYTES + count * RecordCodec.HOLDING_BYTES
+                + tickerCount * RecordCodec.TICKER_STATS_BYTES;
+        if (buffer.remaining() != length + Integer.BYTES
+                || buffer.getInt(length) != RecordCodec.checksum(buffer, 0, length)) {
+            throw new IOException("Snapshot is corrupt");
+        }
+
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        snapshot.journalSequence = buffer.getLong(8);
+        snapshot.cashCents = buffer.getLong(16);
+        snapshot.stocks = new HashMap<>(count * 2);
+        buffer.position(HEADER_BYTES);
+        for (int i = 0; i < count; i++) {
+            RecordCodec.getHolding(buffer, snapshot.stocks);
+        }
+        snapshot.tickers = new HashMap<>(tickerCount * 2);
+        for (int i = 0; i < tickerCount; i++) {
+            RecordCodec.getTickerStats(buffer, snapshot.tickers);
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,641 @@
+package com.codealpha.trading;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistence layer behind {@link Portfolio}: the transaction journal plus the
+ * binary cash/holdings snapshot. Journal records are committed according to a
+ * {@link PersistenceMode}; snapshots are always replaced atomically through a
+ * temp file and rename, so a crash never leaves a truncated file behind. A
+ * store made by {@link #inMemory()} writes nothing and keeps the history in
+ * memory instead.
+ *
+ * <p>The mode and group-commit window are read from the system properties
+ * {@code portfolio.persistence} ({@code sync}, {@code group}, {@code async}),
+ * {@code portfolio.flushIntervalMs} and {@code portfolio.flushBatchSize}.
+ *
+ * <p>The store also indexes the journal as records are accepted. Each record
+ * carries the sequence of the previous record for the same ticker, and the
+ * per-ticker {@link TickerStats} hold the head of that chain plus running
+ * aggregates, so a ticker's recent trades are reached without scanning the
+ * rest of the history. Timestamps are kept non-decreasing in journal order,
+ * which lets time ranges be found by binary search.
+ */
+public class PortfolioStore implements Closeable {
+    private static final int QUERY_PAGE_SIZE = 256;
+    private static final int TICKER_BYTES = 144; // TickerStats, map entry and ticker, roughly
+    private static final int RECORD_BYTES = 80; // Transaction held in memory, roughly
+
+    private final PersistenceMode mode;
+    private final long flushIntervalMs;
+    private final int flushBatchSize;
+    private final Path snapshotPath;
+    private final Path snapshotTempPath;
+    private final TransactionJournal journal;
+    private final FlushStats stats = new FlushStats();
+
+    private final Object lock = new Object();
+    private final Object syncWriter = new Object(); // Held by the one caller writing in sync mode, ahead of lock
+    private Map<String, TickerStats> tickers = new HashMap<>();
+    private long lastTimestamp = Long.MIN_VALUE;
+    private List<Transaction> pending = new ArrayList<>();
+    private List<Transaction> inflight = List.of(); // Drained but not yet durable
+    private final List<Transaction> memory = new ArrayList<>(); // Whole history in MEMORY mode
+    private long firstPendingNanos;
+    private long appendedSequence;
+    private long durableSequence;
+    private ByteBuffer pendingSnapshot;
+    private boolean flushRequested;
+    private IOException failure;
+    private boolean opened;
+    private boolean closed;
+    private Thread flusher;
+
+    public PortfolioStore(String snapshotFile, String journalFile) {
+        this(snapshotFile, journalFile, PersistenceMode.parse(System.getProperty("portfolio.persistence")));
+    }
+
+    public PortfolioStore(String snapshotFile, String journalFile, PersistenceMode mode) {
+        this(snapshotFile, journalFile, mode, Long.getLong("portfolio.flushIntervalMs", 5),
+                Integer.getInteger("portfolio.flushBatchSize", 64));
+    }
+
+    public PortfolioStore(String snapshotFile, String journalFile, PersistenceMode mode, long flushIntervalMs,
+            int flushBatchSize) {
+        this.mode = mode;
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        this.snapshotPath = snapshotFile == null ? null : Paths.get(snapshotFile);
+        this.snapshotTempPath = snapshotFile == null ? null : Paths.get(snapshotFile + ".tmp");
+        this.journal = journalFile == null ? null : new TransactionJournal(journalFile);
+    }
+
+    /**
+     * A store in {@link PersistenceMode#MEMORY} mode that never touches disk.
+     */
+    public static PortfolioStore inMemory() {
+        return new PortfolioStore(null, null, PersistenceMode.MEMORY, 1, 1);
+    }
+
+    /**
+     * Reads the snapshot, or returns {@code null} when there is none.
+     */
+    PortfolioSnapshot readSnapshot() throws IOException {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            return PortfolioSnapshot.decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public boolean hasSnapshot() {
+        return snapshotPath != null && Files.exists(snapshotPath);
+    }
+
+    /**
+     * Opens the journal, returning the number of records already in it, and
+     * starts the background flusher for the non-synchronous modes.
+     */
+    public long openJournal() throws IOException {
+        if (mode == PersistenceMode.MEMORY) {
+            synchronized (lock) {
+                opened = true;
+                return appendedSequence;
+            }
+        }
+        long records = journal.open();
+        long latest = Long.MIN_VALUE;
+        if (records > 0) {
+            List<Transaction> last = new ArrayList<>(1);
+            journal.read(records - 1, 1, last);
+            latest = last.get(0).timestamp;
+        }
+        synchronized (lock) {
+            lastTimestamp = latest;
+            appendedSequence = durableSequence = journal.getSequence();
+            opened = true;
+        }
+        if (mode != PersistenceMode.SYNC && flusher == null) {
+            flusher = new Thread(this::runFlusher, "portfolio-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+        return records;
+    }
+
+    public void append(Transaction t) throws IOException {
+        append(List.of(t));
+    }
+
+    /**
+     * Commits a batch of transactions according to the persistence mode and
+     * returns the journal sequence of the last one.
+     */
+    public long append(List<Transaction> batch) throws IOException {
+        long sequence = submit(batch);
+        awaitCommit(sequence);
+        return sequence;
+    }
+
+    public long submit(Transaction t) throws IOException {
+        return submit(List.of(t));
+    }
+
+    /**
+     * Queues a batch for the journal and returns the sequence to pass to
+     * {@link #awaitCommit(long)}, which the caller makes once it has released
+     * its own locks. Nothing is written here in any mode, so a slow fsync
+     * never holds up whoever called this under a lock.
+     */
+    public long submit(List<Transaction> batch) throws IOException {
+        synchronized (lock) {
+            if (batch.isEmpty()) {
+                return appendedSequence;
+            }
+            checkOpen();
+            long sequence = appendedSequence;
+            for (Transaction t : batch) {
+                t.sequence = sequence++;
+                t.timestamp = Math.max(t.timestamp, lastTimestamp);
+                lastTimestamp = t.timestamp;
+                TickerStats stats = tickers.computeIfAbsent(t.ticker, k -> new TickerStats());
+                t.previous = stats.lastSequence;
+                stats.add(t);
+            }
+            if (mode == PersistenceMode.MEMORY) {
+                memory.addAll(batch);
+                appendedSequence += batch.size();
+                return appendedSequence;
+            }
+            if (mode == PersistenceMode.SYNC) {
+                pending.addAll(batch);
+                appendedSequence += batch.size();
+                return appendedSequence;
+            }
+
+            boolean wasEmpty = pending.isEmpty();
+            if (wasEmpty) {
+                firstPendingNanos = System.nanoTime();
+            }
+            pending.addAll(batch);
+            appendedSequence += batch.size();
+            if (wasEmpty || pending.size() >= flushBatchSize) {
+                lock.notifyAll(); // Arm the flush window, or flush a full batch now
+            }
+            return appendedSequence;
+        }
+    }
+
+    /**
+     * Blocks until the record with the given sequence is durable: in sync
+     * mode by writing and fsyncing everything queued so far on the calling
+     * thread, in group-commit mode by waiting for the flusher. Returns
+     * immediately in the other modes.
+     */
+    public void awaitCommit(long sequence) throws IOException {
+        if (mode == PersistenceMode.SYNC) {
+            writePending(sequence);
+        } else if (mode == PersistenceMode.GROUP_COMMIT) {
+            synchronized (lock) {
+                awaitDurable(sequence);
+            }
+        }
+    }
+
+    /**
+     * Sync mode: writes the queued records up to at least {@code sequence},
+     * one caller at a time so the journal keeps their order. Whoever writes
+     * takes everything queued, so concurrent callers often find their record
+     * already durable.
+     */
+    private void writePending(long sequence) throws IOException {
+        synchronized (syncWriter) {
+            List<Transaction> batch;
+            synchronized (lock) {
+                checkFailure();
+                if (durableSequence >= sequence) {
+                    return;
+                }
+                batch = pending;
+                inflight = batch;
+                pending = new ArrayList<>();
+            }
+            try {
+                writeBatch(batch);
+            } catch (IOException | RuntimeException e) {
+                IOException cause = journalFailure(e);
+                synchronized (lock) {
+                    failure = cause;
+                    lock.notifyAll();
+                }
+                throw cause;
+            }
+            synchronized (lock) {
+                durableSequence += batch.size();
+                inflight = List.of();
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Replaces the snapshot. The journal is flushed first so the snapshot never
+     * references records that are not yet durable. In write-behind mode the
+     * already encoded snapshot is handed to the flusher instead.
+     */
+    void writeSnapshot(PortfolioSnapshot snapshot) throws IOException {
+        if (mode == PersistenceMode.MEMORY) {
+            return;
+        }
+        ByteBuffer encoded = snapshot.encode();
+        synchronized (lock) {
+            checkOpen();
+            if (mode == PersistenceMode.WRITE_BEHIND) {
+                pendingSnapshot = encoded;
+                lock.notifyAll();
+                return;
+            }
+        }
+        flush();
+        writeSnapshotFile(encoded);
+    }
+
+    /**
+     * Reads up to {@code count} records starting at sequence {@code from}
+     * (0-based), including ones accepted but not yet on disk. Disk reads
+     * happen outside the lock so trading is not held up by history paging.
+     */
+    public List<Transaction> read(long from, int count) throws IOException {
+        List<Transaction> records = new ArrayList<>(count);
+        List<Transaction> tail = new ArrayList<>();
+        long onDisk;
+        synchronized (lock) {
+            if (mode == PersistenceMode.MEMORY) {
+                records.addAll(memory.subList((int) from, (int) Math.min(from + count, appendedSequence)));
+                return records;
+            }
+            long end = Math.min(from + count, appendedSequence);
+            onDisk = Math.min(end, durableSequence);
+            long sequence = durableSequence;
+            for (List<Transaction> part : List.of(inflight, pending)) {
+                for (Transaction t : part) {
+                    if (sequence >= end) {
+                        break;
+                    }
+                    if (sequence >= from) {
+                        tail.add(t);
+                    }
+                    sequence++;
+                }
+            }
+        }
+        if (from < onDisk) {
+            journal.read(from, (int) (onDisk - from), records);
+        }
+        records.addAll(tail);
+        return records;
+    }
+
+    private Transaction readOne(long sequence) throws IOException {
+        return read(sequence, 1).get(0);
+    }
+
+    /**
+     * Newest-first page of up to {@code limit} records matching
+     * {@code query}, starting at the record with sequence {@code cursor}, or
+     * at the newest one for {@link TransactionPage#FIRST}. A cursor must come
+     * from an earlier page of the same query.
+     *
+     * <p>Ticker queries walk that ticker's chain of records, so fetching its
+     * latest trades costs the same however long the history is. Other
+     * queries read the journal backwards a page at a time from the end of
+     * the requested time range.
+     */
+    public TransactionPage query(TransactionQuery query, long cursor, int limit) throws IOException {
+        List<Transaction> matches = new ArrayList<>(Math.min(limit, QUERY_PAGE_SIZE));
+        long upper = Math.min(cursor, getSequence() - 1);
+        if (query.to != Long.MAX_VALUE) {
+            upper = Math.min(upper, firstAtOrAfter(query.to) - 1);
+        }
+
+        if (query.ticker != null) {
+            long next;
+            synchronized (lock) {
+                TickerStats stats = tickers.get(query.ticker);
+                next = stats == null ? TransactionPage.END : Math.min(cursor, stats.lastSequence);
+            }
+            while (next != TransactionPage.END && matches.size() < limit) {
+                Transaction t = readOne(next);
+                if (!t.ticker.equals(query.ticker)) {
+                    // Not a cursor from this query: step back until the chain is found again
+                    next = t.sequence - 1;
+                    continue;
+                }
+                if (t.sequence > upper) {
+                    next = t.previous;
+                    continue;
+                }
+                if (t.timestamp < query.from) {
+                    return new TransactionPage(matches, TransactionPage.END);
+                }
+                if (query.matches(t)) {
+                    matches.add(t);
+                }
+                next = t.previous;
+            }
+            return new TransactionPage(matches, next);
+        }
+
+        while (upper >= 0) {
+            long start = Math.max(0, upper - QUERY_PAGE_SIZE + 1);
+            List<Transaction> page = read(start, (int) (upper - start + 1));
+            for (int i = page.size() - 1; i >= 0; i--) {
+                Transaction t = page.get(i);
+                if (t.timestamp < query.from) {
+                    return new TransactionPage(matches, TransactionPage.END);
+                }
+                if (query.matches(t)) {
+                    matches.add(t);
+                    if (matches.size() == limit) {
+                        return new TransactionPage(matches, t.sequence - 1);
+                    }
+                }
+            }
+            upper = start - 1;
+        }
+        return new TransactionPage(matches, TransactionPage.END);
+    }
+
+    // Binary search; journal timestamps never decrease
+    private long firstAtOrAfter(long timestamp) throws IOException {
+        long low = 0;
+        long high = getSequence();
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (readOne(mid).timestamp < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Aggregates for one ticker, or {@code null} if it was never traded.
+     */
+    public TickerStats getTickerStats(String ticker) {
+        synchronized (lock) {
+            TickerStats stats = tickers.get(ticker);
+            return stats == null ? null : new TickerStats(stats);
+        }
+    }
+
+    Map<String, TickerStats> copyTickerStats() {
+        synchronized (lock) {
+            Map<String, TickerStats> copy = new HashMap<>(tickers.size() * 2);
+            for (Map.Entry<String, TickerStats> entry : tickers.entrySet()) {
+                copy.put(entry.getKey(), new TickerStats(entry.getValue()));
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Restores the ticker index saved with a snapshot, before the journal
+     * tail after it is {@link #reindex replayed}.
+     */
+    void restoreTickerStats(Map<String, TickerStats> saved) {
+        synchronized (lock) {
+            tickers = new HashMap<>(saved);
+        }
+    }
+
+    /**
+     * Adds a record read back from the journal to the ticker index.
+     */
+    void reindex(Transaction t) {
+        synchronized (lock) {
+            tickers.computeIfAbsent(t.ticker, k -> new TickerStats()).add(t);
+        }
+    }
+
+    /**
+     * Blocks until every appended record is on disk.
+     */
+    public void flush() throws IOException {
+        if (mode == PersistenceMode.SYNC) {
+            writePending(getSequence());
+            return;
+        }
+        synchronized (lock) {
+            checkFailure();
+            if (flusher == null) {
+                return;
+            }
+            flushRequested = true;
+            lock.notifyAll();
+            awaitDurable(appendedSequence);
+        }
+    }
+
+    /**
+     * Number of records accepted so far, including ones still being flushed.
+     */
+    public long getSequence() {
+        synchronized (lock) {
+            return appendedSequence;
+        }
+    }
+
+    /**
+     * Rough heap bytes of per-ticker stats and records held in memory
+     * (queued for the journal, or the whole history in memory mode).
+     */
+    long estimateFootprint() {
+        synchronized (lock) {
+            return (long) tickers.size() * TICKER_BYTES
+                    + (long) (pending.size() + inflight.size() + memory.size()) * RECORD_BYTES;
+        }
+    }
+
+    public PersistenceMode getMode() {
+        return mode;
+    }
+
+    public FlushStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (mode == PersistenceMode.SYNC) {
+            try {
+                writePending(getSequence());
+            } catch (IOException e) {
+                // Kept as the failure and rethrown once the journal is closed
+            }
+        }
+        Thread thread;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            thread = flusher;
+            lock.notifyAll();
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Background loop for the group-commit and write-behind modes. It drains
+     * the queue once the batch is full, the flush window has elapsed or a
+     * flush was requested, then writes and fsyncs outside the lock so new
+     * trades can keep queueing behind it.
+     */
+    private void runFlusher() {
+        boolean stop = false;
+        while (!stop) {
+            List<Transaction> batch;
+            ByteBuffer snapshot;
+            synchronized (lock) {
+                try {
+                    long waitMillis;
+                    while ((waitMillis = millisUntilFlush()) > 0) {
+                        lock.wait(waitMillis == Long.MAX_VALUE ? 0 : waitMillis);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                batch = pending;
+                inflight = batch;
+                pending = new ArrayList<>();
+                snapshot = pendingSnapshot;
+                pendingSnapshot = null;
+                flushRequested = false;
+                stop = closed;
+            }
+
+            try {
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+                if (snapshot != null) {
+                    writeSnapshotFile(snapshot);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.out.println(TradingApp.ANSI_RED + "Fatal Error: Background portfolio flush failed! "
+                        + e.getMessage() + TradingApp.ANSI_RESET);
+                synchronized (lock) {
+                    failure = journalFailure(e);
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                durableSequence += batch.size();
+                inflight = List.of();
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Caller holds lock. Returns 0 when the flusher should run now.
+    private long millisUntilFlush() {
+        if (closed || flushRequested || pendingSnapshot != null || pending.size() >= flushBatchSize) {
+            return 0;
+        }
+        if (pending.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        long remainingNanos = firstPendingNanos + flushIntervalMs * 1_000_000L - System.nanoTime();
+        return remainingNanos <= 0 ? 0 : Math.max(1, remainingNanos / 1_000_000L);
+    }
+
+    private void writeBatch(List<Transaction> batch) throws IOException {
+        long start = System.nanoTime();
+        journal.append(batch);
+        journal.sync();
+        long elapsed = System.nanoTime() - start;
+        stats.record(batch.size(), elapsed);
+        if (Metrics.ENABLED) {
+            Metrics.JOURNAL_FLUSH.recordNanos(elapsed);
+            Metrics.JOURNAL_RECORDS.add(batch.size());
+        }
+    }
+
+    // Any failure to write, such as a record the codec cannot encode, fails the store for every waiter
+    private static IOException journalFailure(Exception e) {
+        return e instanceof IOException ? (IOException) e
+                : new IOException("Could not write transaction journal: " + e.getMessage(), e);
+    }
+
+    // Caller holds lock
+    private void awaitDurable(long sequence) throws IOException {
+        while (durableSequence < sequence) {
+            checkFailure();
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for portfolio flush", e);
+            }
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        checkFailure();
+        if (!opened || closed) {
+            throw new IOException("Transaction journal is not open");
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized void writeSnapshotFile(ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotTempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(snapshotTempPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(snapshotTempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
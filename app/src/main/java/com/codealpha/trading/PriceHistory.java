@@ -0,0 +1,161 @@
+package com.codealpha.trading;
+
+/**
+ * Fixed-capacity ring buffer of recent prices backed by a primitive array.
+ * Adding a tick allocates nothing, and the change, N-tick return, min/max
+ * and rolling mean/variance over the window are all maintained incrementally.
+ */
+public class PriceHistory {
+    public static final int DEFAULT_DEPTH = Integer.getInteger("stock.historyDepth", 10);
+
+    private final double[] prices;
+    private int next; // Slot the next tick is written to
+    private long count; // Total ticks ever added
+
+    // Monotonic deques (tick index plus value) for the sliding min and max
+    private final long[] minTicks;
+    private final double[] minValues;
+    private final long[] maxTicks;
+    private final double[] maxValues;
+    private int minHead, minSize;
+    private int maxHead, maxSize;
+
+    // Welford-style running moments over the current window
+    private double mean;
+    private double m2;
+
+    public PriceHistory() {
+        this(DEFAULT_DEPTH);
+    }
+
+    public PriceHistory(int depth) {
+        if (depth < 2) {
+            throw new IllegalArgumentException("History depth must be at least 2, got " + depth);
+        }
+        this.prices = new double[depth];
+        this.minTicks = new long[depth];
+        this.minValues = new double[depth];
+        this.maxTicks = new long[depth];
+        this.maxValues = new double[depth];
+    }
+
+    public void add(double price) {
+        int capacity = prices.length;
+        if (count >= capacity) {
+            double evicted = prices[next];
+            double oldMean = mean;
+            mean += (price - evicted) / capacity;
+            m2 += (price - evicted) * (price - mean + evicted - oldMean);
+            if (m2 < 0) {
+                m2 = 0; // Guard against rounding on flat windows
+            }
+        } else {
+            double delta = price - mean;
+            mean += delta / (count + 1);
+            m2 += delta * (price - mean);
+        }
+        prices[next] = price;
+        if (++next == capacity) {
+            next = 0;
+        }
+
+        long oldest = count - capacity + 1;
+        if (minSize > 0 && minTicks[minHead] < oldest) {
+            minHead = wrap(minHead + 1);
+            minSize--;
+        }
+        while (minSize > 0 && minValues[wrap(minHead + minSize - 1)] >= price) {
+            minSize--;
+        }
+        int minTail = wrap(minHead + minSize++);
+        minTicks[minTail] = count;
+        minValues[minTail] = price;
+
+        if (maxSize > 0 && maxTicks[maxHead] < oldest) {
+            maxHead = wrap(maxHead + 1);
+            maxSize--;
+        }
+        while (maxSize > 0 && maxValues[wrap(maxHead + maxSize - 1)] <= price) {
+            maxSize--;
+        }
+        int maxTail = wrap(maxHead + maxSize++);
+        maxTicks[maxTail] = count;
+        maxValues[maxTail] = price;
+
+        count++;
+    }
+
+    private int wrap(int index) {
+        return index >= prices.length ? index - prices.length : index;
+    }
+
+    public int size() {
+        return (int) Math.min(count, prices.length);
+    }
+
+    public int getDepth() {
+        return prices.length;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the price {@code ticksAgo} ticks before the latest one (0 is the
+     * latest).
+     */
+    public double get(int ticksAgo) {
+        if (ticksAgo < 0 || ticksAgo >= size()) {
+            throw new IndexOutOfBoundsException("No price " + ticksAgo + " ticks ago; history holds " + size());
+        }
+        int slot = next - 1 - ticksAgo;
+        return prices[slot < 0 ? slot + prices.length : slot];
+    }
+
+    public double getLatest() {
+        return get(0);
+    }
+
+    /**
+     * Absolute change between the last two ticks, or 0 with fewer than two.
+     */
+    public double getChange() {
+        return size() < 2 ? 0.0 : get(0) - get(1);
+    }
+
+    /**
+     * Simple return over the last {@code ticks} ticks, or 0 when the history
+     * is not deep enough yet.
+     */
+    public double getReturn(int ticks) {
+        if (ticks <= 0 || ticks >= size()) {
+            return 0.0;
+        }
+        double base = get(ticks);
+        return base == 0.0 ? 0.0 : get(0) / base - 1.0;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : minValues[minHead];
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : maxValues[maxHead];
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Population variance of the prices currently in the window.
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / size();
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+}
@@ -0,0 +1,30 @@
+package com.codealpha.trading;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates the next tick of prices for a range of instruments in one call.
+ * The {@link TickEngine} hands each shard of the universe to the model as a
+ * slice of the price columns and rounds the raw prices it writes to whole
+ * cents afterwards, so a model works on plain doubles and never rounds.
+ *
+ * <p>{@link #step} runs concurrently for disjoint shards and must only touch
+ * its own slice and its own random stream; any per-instrument state belongs in
+ * arrays sized by {@link #prepare}.
+ */
+public interface PriceModel {
+
+    /**
+     * Called on the ticking thread before the shards of each tick run, with
+     * the current prices of all {@code size} instruments, so the model can
+     * grow per-instrument state when new instruments have been listed.
+     */
+    default void prepare(double[] prices, int size) {
+    }
+
+    /**
+     * Writes the next raw price of every instrument in
+     * {@code [from, to)} from {@code current} into {@code next}.
+     */
+    void step(double[] current, double[] next, int from, int to, SplittableRandom random);
+}
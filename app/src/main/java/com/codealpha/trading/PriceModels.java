@@ -0,0 +1,152 @@
+package com.codealpha.trading;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Built-in {@link PriceModel} implementations. All time parameters are per
+ * tick.
+ */
+public final class PriceModels {
+    private PriceModels() {
+    }
+
+    /**
+     * Looks up a built-in model by name: {@code uniform} (the original
+     * &plusmn;5% random walk), {@code gbm}, {@code meanrevert} or
+     * {@code jump}. Models may keep per-instrument state, so each market
+     * needs its own instance.
+     *
+     * @throws IllegalArgumentException for unknown names
+     */
+    public static Supplier<PriceModel> named(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "uniform":
+                return () -> new Uniform(0.05);
+            case "gbm":
+                return () -> new GeometricBrownian(0.0, 0.02);
+            case "meanrevert":
+                return () -> new MeanReverting(0.05, 0.02);
+            case "jump":
+                return () -> new JumpDiffusion(0.0, 0.015, 0.01, -0.01, 0.08);
+            default:
+                throw new IllegalArgumentException("Unknown price model '" + name
+                        + "'; use uniform, gbm, meanrevert or jump");
+        }
+    }
+
+    /**
+     * Moves each price by a uniformly drawn fraction of at most
+     * {@code range} either way.
+     */
+    public static final class Uniform implements PriceModel {
+        private final double range;
+
+        public Uniform(double range) {
+            this.range = range;
+        }
+
+        @Override
+        public void step(double[] current, double[] next, int from, int to, SplittableRandom random) {
+            for (int id = from; id < to; id++) {
+                double changePercent = (random.nextDouble() * 2 - 1) * range;
+                next[id] = current[id] * (1 + changePercent);
+            }
+        }
+    }
+
+    /**
+     * Geometric Brownian motion: log returns are normal with mean
+     * {@code drift - volatility^2 / 2} and standard deviation
+     * {@code volatility}, so the expected price grows at {@code drift}.
+     */
+    public static final class GeometricBrownian implements PriceModel {
+        private final double mean;
+        private final double volatility;
+
+        public GeometricBrownian(double drift, double volatility) {
+            this.mean = drift - volatility * volatility / 2;
+            this.volatility = volatility;
+        }
+
+        @Override
+        public void step(double[] current, double[] next, int from, int to, SplittableRandom random) {
+            for (int id = from; id < to; id++) {
+                next[id] = current[id] * Math.exp(mean + volatility * random.nextGaussian());
+            }
+        }
+    }
+
+    /**
+     * Ornstein-Uhlenbeck process on the log price: each tick closes
+     * {@code speed} of the gap to the instrument's price when the model first
+     * saw it, plus normal noise of {@code volatility}.
+     */
+    public static final class MeanReverting implements PriceModel {
+        private final double speed;
+        private final double volatility;
+        private double[] anchors = new double[0]; // Log of each instrument's first price
+
+        public MeanReverting(double speed, double volatility) {
+            this.speed = speed;
+            this.volatility = volatility;
+        }
+
+        @Override
+        public void prepare(double[] prices, int size) {
+            if (size <= anchors.length) {
+                return;
+            }
+            int old = anchors.length;
+            anchors = Arrays.copyOf(anchors, size);
+            for (int id = old; id < size; id++) {
+                anchors[id] = Math.log(prices[id]);
+            }
+        }
+
+        @Override
+        public void step(double[] current, double[] next, int from, int to, SplittableRandom random) {
+            double[] anchors = this.anchors;
+            for (int id = from; id < to; id++) {
+                double log = Math.log(current[id]);
+                next[id] = Math.exp(log + speed * (anchors[id] - log) + volatility * random.nextGaussian());
+            }
+        }
+    }
+
+    /**
+     * Merton jump diffusion: geometric Brownian motion plus, with
+     * probability {@code jumpRate} per tick, a normal jump in the log price.
+     * The drift is compensated for the jumps, so the expected price still
+     * grows at {@code drift}.
+     */
+    public static final class JumpDiffusion implements PriceModel {
+        private final double mean;
+        private final double volatility;
+        private final double jumpRate;
+        private final double jumpMean;
+        private final double jumpVolatility;
+
+        public JumpDiffusion(double drift, double volatility, double jumpRate, double jumpMean,
+                double jumpVolatility) {
+            double compensation = jumpRate * (Math.exp(jumpMean + jumpVolatility * jumpVolatility / 2) - 1);
+            this.mean = drift - volatility * volatility / 2 - compensation;
+            this.volatility = volatility;
+            this.jumpRate = jumpRate;
+            this.jumpMean = jumpMean;
+            this.jumpVolatility = jumpVolatility;
+        }
+
+        @Override
+        public void step(double[] current, double[] next, int from, int to, SplittableRandom random) {
+            for (int id = from; id < to; id++) {
+                double log = mean + volatility * random.nextGaussian();
+                if (random.nextDouble() < jumpRate) {
+                    log += jumpMean + jumpVolatility * random.nextGaussian();
+                }
+                next[id] = current[id] * Math.exp(log);
+            }
+        }
+    }
+}
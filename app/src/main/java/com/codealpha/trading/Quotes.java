@@ -0,0 +1,172 @@
+package com.codealpha.trading;
+
+import java.util.Arrays;
+
+/**
+ * Price and change in cents of every instrument as of one market tick,
+ * copied once from the {@link MarketSnapshot} so any number of readers see
+ * the same consistent tick without retrying. {@link Market#getQuotes()}
+ * keeps the latest one and replaces it when the market ticks.
+ *
+ * <p>Views derived from a tick, such as {@link #topMovers}, are computed on
+ * first use and cached with it, so they also go stale together with it.
+ */
+public final class Quotes {
+    static final Quotes EMPTY = new Quotes(-2, 0, new long[0], new long[0]);
+
+    private final long tick;
+    private final int size;
+    private final long[] priceCents;
+    private final long[] changeCents;
+    private volatile Movers gainers;
+    private volatile Movers losers;
+
+    // The largest top-movers list computed for this tick; shorter ones are its prefixes
+    private static final class Movers {
+        final int limit;
+        final int[] ids;
+
+        Movers(int limit, int[] ids) {
+            this.limit = limit;
+            this.ids = ids;
+        }
+    }
+
+    private Quotes(long tick, int size, long[] priceCents, long[] changeCents) {
+        this.tick = tick;
+        this.size = size;
+        this.priceCents = priceCents;
+        this.changeCents = changeCents;
+    }
+
+    static Quotes of(MarketSnapshot snapshot) {
+        double[] prices = new double[snapshot.prices.length];
+        double[] previousPrices = new double[prices.length];
+        long tick = snapshot.copyPrices(prices, previousPrices);
+        int size = Math.min(snapshot.size(), prices.length);
+        long[] priceCents = new long[size];
+        long[] changeCents = new long[size];
+        for (int id = 0; id < size; id++) {
+            priceCents[id] = Money.toCents(prices[id]);
+            changeCents[id] = priceCents[id] - Money.toCents(previousPrices[id]);
+        }
+        return new Quotes(tick, size, priceCents, changeCents);
+    }
+
+    /**
+     * Tick the quotes belong to.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getPriceCents(int id) {
+        return priceCents[id];
+    }
+
+    public long getChangeCents(int id) {
+        return changeCents[id];
+    }
+
+    /**
+     * IDs of up to {@code count} instruments with the largest rise
+     * ({@code gainers}) or fall since the previous tick, biggest move first;
+     * unchanged instruments are left out. Selected with a bounded heap in
+     * O(n log count), not a sort of the whole universe.
+     */
+    public int[] topMovers(int count, boolean gainers) {
+        if (count <= 0) {
+            return new int[0];
+        }
+        Movers cached = gainers ? this.gainers : this.losers;
+        if (cached == null || cached.limit < count && cached.ids.length == cached.limit) {
+            cached = new Movers(count, selectMovers(count, gainers ? 1 : -1));
+            if (gainers) {
+                this.gainers = cached;
+            } else {
+                this.losers = cached;
+            }
+        }
+        return Arrays.copyOf(cached.ids, Math.min(count, cached.ids.length));
+    }
+
+    /**
+     * Keeps the {@code count} largest {@code sign * change} in a min-heap
+     * whose root is the smallest one kept, then drains it biggest first.
+     * Ties go to the lower ID.
+     */
+    private int[] selectMovers(int count, int sign) {
+        long[] keys = new long[count];
+        int[] ids = new int[count];
+        int kept = 0;
+        for (int id = 0; id < size; id++) {
+            long key = sign * changeCents[id];
+            if (key <= 0) {
+                continue;
+            }
+            if (kept < count) {
+                keys[kept] = key;
+                ids[kept] = id;
+                siftUp(keys, ids, kept++);
+            } else if (key > keys[0]) {
+                keys[0] = key;
+                ids[0] = id;
+                siftDown(keys, ids, 0, kept);
+            }
+        }
+        int[] movers = new int[kept];
+        for (int i = kept - 1; i >= 0; i--) {
+            movers[i] = ids[0];
+            keys[0] = keys[i];
+            ids[0] = ids[i];
+            siftDown(keys, ids, 0, i);
+        }
+        return movers;
+    }
+
+    // Heap order: the smaller move, or for equal moves the higher ID, sits nearer the root
+    private static boolean less(long[] keys, int[] ids, int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && ids[a] > ids[b]);
+    }
+
+    private static void siftUp(long[] keys, int[] ids, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(keys, ids, i, parent)) {
+                break;
+            }
+            swap(keys, ids, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] ids, int i, int size) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(keys, ids, child + 1, child)) {
+                child++;
+            }
+            if (!less(keys, ids, child, i)) {
+                break;
+            }
+            swap(keys, ids, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(long[] keys, int[] ids, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
@@ -0,0 +1,149 @@
+package com.codealpha.trading;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed-size binary layouts for {@link Transaction}, {@link StockHolding} and
+ * {@link TickerStats} records, shared by the journal and the snapshot file.
+ * Tickers are stored as a length byte followed by ASCII characters
+ * zero-padded to a fixed width. Money is stored as whole cents. Transactions
+ * end with a CRC32C so a torn or corrupt record is detected.
+ */
+final class RecordCodec {
+    /** timestamp(8) previous(8) price(8) total(8) realizedPnl(8) quantity(4) type(1) ticker(1+13) pad(1) crc(4) */
+    static final int TRANSACTION_BYTES = 64;
+    /** ticker(1+15) quantity(4) cost(8) pad(4) */
+    static final int HOLDING_BYTES = 32;
+    /** ticker(1+15) lastSequence(8) trades(8) volume(8) notional(8) realizedPnl(8) pad(8) */
+    static final int TICKER_STATS_BYTES = 64;
+    static final int MAX_TICKER_LENGTH = 13;
+
+    private static final int TICKER_WIDTH = 15;
+    private static final int QUANTITY_OFFSET = 40;
+    private static final int TYPE_OFFSET = 44;
+    private static final int TICKER_OFFSET = 45;
+    private static final int CRC_OFFSET = 60;
+    private static final byte BUY = 'B';
+    private static final byte SELL = 'S';
+
+    private RecordCodec() {
+    }
+
+    static void putTransaction(ByteBuffer buffer, Transaction t) {
+        int start = buffer.position();
+        buffer.putLong(t.timestamp).putLong(t.previous).putLong(t.priceCents).putLong(t.totalCents)
+                .putLong(t.realizedPnlCents).putInt(t.quantity).put(encodeType(t.type));
+        putAscii(buffer, t.ticker, MAX_TICKER_LENGTH);
+        buffer.put((byte) 0);
+        buffer.putInt(checksum(buffer, start, CRC_OFFSET));
+    }
+
+    /**
+     * Decodes the transaction at the buffer's position and advances past it.
+     * Returns {@code null} when the record's checksum does not match.
+     */
+    static Transaction getTransaction(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.position(start + TRANSACTION_BYTES);
+        if (buffer.getInt(start + CRC_OFFSET) != checksum(buffer, start, CRC_OFFSET)) {
+            return null;
+        }
+        String type = buffer.get(start + TYPE_OFFSET) == BUY ? "BUY" : "SELL";
+        Transaction t = new Transaction(buffer.getLong(start), type, getAscii(buffer, start + TICKER_OFFSET),
+                buffer.getInt(start + QUANTITY_OFFSET), buffer.getLong(start + 16));
+        t.previous = buffer.getLong(start + 8);
+        t.totalCents = buffer.getLong(start + 24);
+        t.realizedPnlCents = buffer.getLong(start + 32);
+        return t;
+    }
+
+    static void putHolding(ByteBuffer buffer, String ticker, StockHolding holding) {
+        int start = buffer.position();
+        putAscii(buffer, ticker, TICKER_WIDTH);
+        buffer.putInt(holding.quantity).putLong(holding.costCents).putInt(0);
+        buffer.position(start + HOLDING_BYTES);
+    }
+
+    /**
+     * Decodes the holding at the buffer's position into {@code holdings} and
+     * advances past it.
+     */
+    static void getHolding(ByteBuffer buffer, Map<String, StockHolding> holdings) {
+        int start = buffer.position();
+        String ticker = getAscii(buffer, start);
+        int offset = start + 1 + TICKER_WIDTH;
+        holdings.put(ticker, new StockHolding(buffer.getInt(offset), buffer.getLong(offset + 4)));
+        buffer.position(start + HOLDING_BYTES);
+    }
+
+    static void putTickerStats(ByteBuffer buffer, String ticker, TickerStats stats) {
+        int start = buffer.position();
+        putAscii(buffer, ticker, TICKER_WIDTH);
+        buffer.putLong(stats.lastSequence).putLong(stats.trades).putLong(stats.volume).putLong(stats.notionalCents)
+                .putLong(stats.realizedPnlCents).putLong(0);
+        buffer.position(start + TICKER_STATS_BYTES);
+    }
+
+    /**
+     * Decodes the ticker stats at the buffer's position into {@code stats}
+     * and advances past them.
+     */
+    static void getTickerStats(ByteBuffer buffer, Map<String, TickerStats> stats) {
+        int start = buffer.position();
+        int offset = start + 1 + TICKER_WIDTH;
+        TickerStats s = new TickerStats();
+        s.lastSequence = buffer.getLong(offset);
+        s.trades = buffer.getLong(offset + 8);
+        s.volume = buffer.getLong(offset + 16);
+        s.notionalCents = buffer.getLong(offset + 24);
+        s.realizedPnlCents = buffer.getLong(offset + 32);
+        stats.put(getAscii(buffer, start), s);
+        buffer.position(start + TICKER_STATS_BYTES);
+    }
+
+    /**
+     * CRC32C of {@code length} bytes starting at {@code offset}, leaving the
+     * buffer's position untouched.
+     */
+    static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(offset + length).position(offset));
+        return (int) crc.getValue();
+    }
+
+    private static byte encodeType(String type) {
+        switch (type) {
+            case "BUY":
+                return BUY;
+            case "SELL":
+                return SELL;
+            default:
+                throw new IllegalArgumentException("Unknown transaction type: " + type);
+        }
+    }
+
+    private static void putAscii(ByteBuffer buffer, String value, int width) {
+        if (value.length() > width) {
+            throw new IllegalArgumentException("'" + value + "' is longer than " + width + " characters");
+        }
+        buffer.put((byte) value.length());
+        for (int i = 0; i < width; i++) {
+            char c = i < value.length() ? value.charAt(i) : 0;
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("'" + value + "' is not ASCII");
+            }
+            buffer.put((byte) c);
+        }
+    }
+
+    private static String getAscii(ByteBuffer buffer, int offset) {
+        int length = buffer.get(offset);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) buffer.get(offset + 1 + i);
+        }
+        return new String(chars);
+    }
+}
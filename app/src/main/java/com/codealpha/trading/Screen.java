@@ -0,0 +1,359 @@
+package com.codealpha.trading;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * A console screen composed in one reused buffer and written to
+ * {@code System.out} with a single write, instead of a {@code printf} per
+ * cell.
+ *
+ * <p>Build a frame with {@link #begin()} and the append methods, which pad
+ * and format numbers by hand (no {@code String.format}, no intermediate
+ * strings), then either {@link #print()} it as is or {@link #redraw()} it
+ * over the previous frame, rewriting only the rows that changed. The buffers
+ * grow to the largest frame and are kept, so steady-state redraws do not
+ * allocate. A screen is not thread-safe; callers that render from more than
+ * one thread must lock it.
+ *
+ * <p>Redraws address rows by their position on the terminal, which only
+ * holds while the frame neither scrolls nor wraps, so a frame with more
+ * rows than {@code -Dscreen.rows} (default {@code $LINES}, else 24) or a row
+ * wider than {@code -Dscreen.columns} (default {@code $COLUMNS}, else 80) is
+ * printed in full instead.
+ */
+public class Screen {
+    public static final String CLEAR = "\033[H\033[2J";
+    private static final String SAVE_CURSOR = "\0337";
+    private static final String RESTORE_CURSOR = "\0338";
+    private static final String CLEAR_TO_EOL = "\033[K";
+    private static final String CLEAR_BELOW = "\033[J";
+    private static final int ROWS = terminalSize("screen.rows", "LINES", 24);
+    private static final int COLUMNS = terminalSize("screen.columns", "COLUMNS", 80);
+
+    private final StringBuilder frame = new StringBuilder(4096);
+    private final StringBuilder patch = new StringBuilder(1024);
+    private final char[] digits = new char[32];
+    private final CharsetEncoder encoder = consoleCharset().newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer bytes = ByteBuffer.allocate(8192);
+
+    // Last frame drawn, for redraw: its characters and where each row starts
+    private char[] previous = new char[0];
+    private int previousLength;
+    private int[] rowStarts = new int[64];
+    private int previousRows;
+    private boolean onScreen; // Whether the last frame drawn is still what the terminal shows
+
+    private static int terminalSize(String property, String variable, int fallback) {
+        Integer size = Integer.getInteger(property);
+        if (size == null) {
+            try {
+                size = Integer.valueOf(System.getenv(variable));
+            } catch (NumberFormatException e) {
+                size = fallback; // Unset or not a number
+            }
+        }
+        return Math.max(1, size);
+    }
+
+    // System.out encodes with the stdout encoding when one is set, else the default charset
+    private static Charset consoleCharset() {
+        String name = System.getProperty("sun.stdout.encoding");
+        if (name != null) {
+            try {
+                return Charset.forName(name);
+            } catch (IllegalArgumentException e) {
+                // Fall back to the default, as System.out does
+            }
+        }
+        return Charset.defaultCharset();
+    }
+
+    /**
+     * Starts a new frame.
+     */
+    public Screen begin() {
+        frame.setLength(0);
+        return this;
+    }
+
+    public Screen text(CharSequence text) {
+        frame.append(text);
+        return this;
+    }
+
+    public Screen text(char c) {
+        frame.append(c);
+        return this;
+    }
+
+    public Screen newline() {
+        frame.append('\n');
+        return this;
+    }
+
+    public Screen repeat(char c, int count) {
+        for (int i = 0; i < count; i++) {
+            frame.append(c);
+        }
+        return this;
+    }
+
+    /**
+     * {@code text} left-aligned in {@code width} columns; longer text is not
+     * cut.
+     */
+    public Screen left(CharSequence text, int width) {
+        frame.append(text);
+        return repeat(' ', width - text.length());
+    }
+
+    /**
+     * {@code text} right-aligned in {@code width} columns.
+     */
+    public Screen right(CharSequence text, int width) {
+        repeat(' ', width - text.length());
+        frame.append(text);
+        return this;
+    }
+
+    /**
+     * A whole number with thousands separators, right-aligned in
+     * {@code width} columns.
+     */
+    public Screen number(long value, int width) {
+        int start = formatNumber(value);
+        return rightDigits(start, width);
+    }
+
+    /**
+     * Dollars and cents as {@code $1,234.56} (or {@code $-1,234.56}, as
+     * {@code $%,.2f} prints it), right-aligned in {@code width} columns; 0
+     * for no padding.
+     */
+    public Screen money(long cents, int width) {
+        int start = formatMoney(cents);
+        return rightDigits(start, width);
+    }
+
+    /**
+     * Like {@link #money(long, int)}, with the amount (but not its padding)
+     * wrapped in {@code color} and {@code reset} escape codes.
+     */
+    public Screen money(long cents, int width, String color, String reset) {
+        int start = formatMoney(cents);
+        repeat(' ', width - (digits.length - start));
+        frame.append(color).append(digits, start, digits.length - start).append(reset);
+        return this;
+    }
+
+    private Screen rightDigits(int start, int width) {
+        repeat(' ', width - (digits.length - start));
+        frame.append(digits, start, digits.length - start);
+        return this;
+    }
+
+    // Writes value right to left into the end of digits and returns where it starts
+    private int formatNumber(long value) {
+        int pos = digits.length;
+        boolean negative = value < 0;
+        long rest = negative ? value : -value; // Work in negatives so Long.MIN_VALUE fits
+        int group = 0;
+        do {
+            if (group == 3) {
+                digits[--pos] = ',';
+                group = 0;
+            }
+            digits[--pos] = (char) ('0' - rest % 10);
+            rest /= 10;
+            group++;
+        } while (rest != 0);
+        if (!negative) {
+            return pos;
+        }
+        digits[--pos] = '-';
+        return pos;
+    }
+
+    private int formatMoney(long cents) {
+        long fraction = Math.abs(cents % 100);
+        int pos = formatNumber(cents / 100);
+        // Shift the whole part left to make room for the cents
+        System.arraycopy(digits, pos, digits, pos - 3, digits.length - pos);
+        pos -= 3;
+        digits[digits.length - 3] = '.';
+        digits[digits.length - 2] = (char) ('0' + fraction / 10);
+        digits[digits.length - 1] = (char) ('0' + fraction % 10);
+        if (cents < 0 && cents > -100) {
+            digits[--pos] = '-'; // The whole part was 0, so it has no sign of its own
+        }
+        digits[--pos] = '$';
+        return pos;
+    }
+
+    /**
+     * Writes the frame as it is and remembers it as what is on screen if it
+     * starts with {@link #CLEAR}.
+     */
+    public void print() {
+        write(frame);
+        remember(startsWithClear());
+    }
+
+    /**
+     * Brings the terminal from the last frame drawn to this one by rewriting
+     * only the rows that differ, then puts the cursor back where it was (on
+     * an input prompt, say). Falls back to a full {@link #print()} when there
+     * is no previous frame on screen or this one does not fit the terminal.
+     * Frames must start with {@link #CLEAR}.
+     */
+    public void redraw() {
+        if (!onScreen || !fitsTerminal()) {
+            print();
+            return;
+        }
+        patch.setLength(0);
+        patch.append(SAVE_CURSOR);
+        int start = CLEAR.length();
+        int row = 0;
+        int length = frame.length();
+        while (start <= length) {
+            int end = indexOfNewline(frame, start, length);
+            if (!sameAsPrevious(row, start, end)) {
+                patch.append("\033[").append(row + 1).append(";1H");
+                patch.append(frame, start, end).append(CLEAR_TO_EOL);
+            }
+            row++;
+            start = end + 1;
+        }
+        if (row < previousRows) {
+            patch.append("\033[").append(row + 1).append(";1H").append(CLEAR_BELOW);
+        }
+        patch.append(RESTORE_CURSOR);
+        write(patch);
+        remember(true);
+    }
+
+    /**
+     * Forgets the frame on screen, e.g. after other output, so the next
+     * {@link #redraw()} draws in full.
+     */
+    public void invalidate() {
+        onScreen = false;
+    }
+
+    // Whether every row of the frame, escape codes aside, stays within the terminal
+    private boolean fitsTerminal() {
+        int rows = 1;
+        int width = 0;
+        int length = frame.length();
+        for (int i = CLEAR.length(); i < length; i++) {
+            char c = frame.charAt(i);
+            if (c == '\n') {
+                if (++rows > ROWS) {
+                    return false;
+                }
+                width = 0;
+            } else if (c == '\033') {
+                i = skipEscape(i, length);
+            } else if (!Character.isLowSurrogate(c) && ++width > COLUMNS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Index of the last character of the escape sequence starting at i
+    private int skipEscape(int i, int length) {
+        if (i + 1 < length && frame.charAt(i + 1) == '[') {
+            i += 2;
+            while (i < length && (frame.charAt(i) < '@' || frame.charAt(i) > '~')) {
+                i++;
+            }
+            return i;
+        }
+        return i + 1; // Two-character sequence such as ESC 7
+    }
+
+    private boolean startsWithClear() {
+        if (frame.length() < CLEAR.length()) {
+            return false;
+        }
+        for (int i = 0; i < CLEAR.length(); i++) {
+            if (frame.charAt(i) != CLEAR.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOfNewline(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private boolean sameAsPrevious(int row, int start, int end) {
+        if (row >= previousRows) {
+            return false;
+        }
+        int oldStart = rowStarts[row];
+        int oldEnd = row + 1 < previousRows ? rowStarts[row + 1] - 1 : previousLength;
+        if (oldEnd - oldStart != end - start) {
+            return false;
+        }
+        for (int i = 0; i < end - start; i++) {
+            if (previous[oldStart + i] != frame.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void remember(boolean fromTop) {
+        onScreen = fromTop;
+        if (!fromTop) {
+            return;
+        }
+        int length = frame.length();
+        if (previous.length < length) {
+            previous = new char[Math.max(length, previous.length * 2)];
+        }
+        frame.getChars(0, length, previous, 0);
+        previousLength = length;
+        previousRows = 0;
+        int start = CLEAR.length();
+        while (start <= length) {
+            if (previousRows == rowStarts.length) {
+                rowStarts = Arrays.copyOf(rowStarts, previousRows * 2);
+            }
+            rowStarts[previousRows++] = start;
+            start = indexOfNewline(frame, start, length) + 1;
+        }
+    }
+
+    // Encodes into the reused byte buffer and hands it to System.out in one write
+    private void write(CharSequence text) {
+        int needed = (int) (text.length() * encoder.maxBytesPerChar()) + 16;
+        if (bytes.capacity() < needed) {
+            bytes = ByteBuffer.allocate(Math.max(needed, bytes.capacity() * 2));
+        }
+        bytes.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(text), bytes, true);
+        encoder.flush(bytes);
+        PrintStream out = System.out;
+        out.flush(); // Anything printed the old way goes first
+        out.write(bytes.array(), 0, bytes.position());
+        out.flush();
+    }
+}
@@ -0,0 +1,35 @@
+package com.codealpha.trading;
+
+/**
+ * Represents a single stock in the market. A stock is a lightweight view of
+ * one row of the {@link MarketData} columns, identified by its interned ID.
+ */
+public class Stock {
+    public final String ticker;
+    public final String name;
+    public final int id;
+    private final MarketData data;
+
+    Stock(MarketData data, int id) {
+        this.data = data;
+        this.id = id;
+        this.ticker = data.getTicker(id);
+        this.name = data.getName(id);
+    }
+
+    public double getPrice() {
+        return data.getPrice(id);
+    }
+
+    public long getPriceCents() {
+        return data.getPriceCents(id);
+    }
+
+    public double getPriceChange() {
+        return data.getSnapshot().getPriceChange(id);
+    }
+
+    public PriceHistory getHistory() {
+        return data.getHistory(id);
+    }
+}
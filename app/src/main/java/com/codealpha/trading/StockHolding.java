@@ -0,0 +1,60 @@
+package com.codealpha.trading;
+
+/**
+ * Represents the stocks a user owns. The cost basis is the exact total paid,
+ * in cents, for the shares still held; the average price is derived from it.
+ */
+public class StockHolding {
+    public int quantity;
+    public long costCents;
+
+    // Valuation state maintained by Portfolio; not persisted
+    transient int stockId = -1;
+    transient long markCents;
+
+    public StockHolding(int quantity, long costCents) {
+        this.quantity = quantity;
+        this.costCents = costCents;
+    }
+
+    StockHolding(StockHolding other) {
+        this.quantity = other.quantity;
+        this.costCents = other.costCents;
+        this.stockId = other.stockId;
+        this.markCents = other.markCents;
+    }
+
+    /**
+     * Average price paid per share, for display.
+     */
+    public double getAvgPrice() {
+        return quantity == 0 ? 0 : Money.toDollars(costCents) / quantity;
+    }
+
+    /**
+     * Last market price this holding was valued at.
+     */
+    public double getMarkPrice() {
+        return Money.toDollars(markCents);
+    }
+
+    public long getMarketValueCents() {
+        return Money.times(markCents, quantity);
+    }
+
+    public double getMarketValue() {
+        return Money.toDollars(getMarketValueCents());
+    }
+
+    public double getCostBasis() {
+        return Money.toDollars(costCents);
+    }
+
+    public long getUnrealizedPnlCents() {
+        return getMarketValueCents() - costCents;
+    }
+
+    public double getUnrealizedPnl() {
+        return Money.toDollars(getUnrealizedPnlCents());
+    }
+}
@@ -0,0 +1,96 @@
+package com.codealpha.trading;
+
+import java.util.function.Supplier;
+
+/**
+ * Built-in {@link Strategy} implementations for backtests.
+ */
+public final class Strategies {
+    private Strategies() {
+    }
+
+    /**
+     * Looks up a built-in strategy by name: {@code hold} or {@code momentum}.
+     *
+     * @throws IllegalArgumentException for unknown names
+     */
+    public static Supplier<Strategy> named(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "hold":
+                return () -> new BuyAndHold(0.95);
+            case "momentum":
+                return () -> new Momentum(5, 0.02, 0.10);
+            default:
+                throw new IllegalArgumentException("Unknown strategy '" + name + "'; use hold or momentum");
+        }
+    }
+
+    /**
+     * Spends {@code fraction} of the starting cash equally across every
+     * stock on the first tick, then does nothing.
+     */
+    public static final class BuyAndHold implements Strategy {
+        private final double fraction;
+
+        public BuyAndHold(double fraction) {
+            this.fraction = fraction;
+        }
+
+        @Override
+        public void onTick(long tick, Market market, Portfolio portfolio) {
+            if (tick != 0) {
+                return;
+            }
+            double budget = portfolio.getCash() * fraction / market.size();
+            for (int id = 0; id < market.size(); id++) {
+                int quantity = (int) (budget / market.getPrice(id));
+                if (quantity > 0) {
+                    portfolio.executeBuy(market.getTicker(id), quantity, market);
+                }
+            }
+        }
+    }
+
+    /**
+     * Buys a stock with {@code stake} of the starting cash when its return
+     * over the last {@code lookback} ticks exceeds {@code threshold}, and
+     * sells the whole position when it falls below {@code -threshold}.
+     */
+    public static final class Momentum implements Strategy {
+        private final int lookback;
+        private final double threshold;
+        private final double stake;
+        private int[] positions;
+        private double budget;
+
+        public Momentum(int lookback, double threshold, double stake) {
+            this.lookback = lookback;
+            this.threshold = threshold;
+            this.stake = stake;
+        }
+
+        @Override
+        public void start(Market market, Portfolio portfolio) {
+            positions = new int[market.size()];
+            budget = portfolio.getCash() * stake;
+        }
+
+        @Override
+        public void onTick(long tick, Market market, Portfolio portfolio) {
+            MarketData data = market.getData();
+            for (int id = 0; id < positions.length; id++) {
+                double change = data.getHistory(id).getReturn(lookback);
+                if (positions[id] == 0 && change > threshold) {
+                    int quantity = (int) (budget / data.getPrice(id));
+                    if (quantity > 0 && portfolio.executeBuy(data.getTicker(id), quantity, market) != null) {
+                        positions[id] = quantity;
+                    }
+                } else if (positions[id] > 0 && change < -threshold) {
+                    if (portfolio.executeSell(data.getTicker(id), positions[id], market) != null) {
+                        positions[id] = 0;
+                    }
+                }
+            }
+        }
+    }
+}
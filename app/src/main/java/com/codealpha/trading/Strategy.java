@@ -0,0 +1,20 @@
+package com.codealpha.trading;
+
+/**
+ * Trading logic driven tick by tick by a {@link Backtest}. A strategy is
+ * created fresh for every run, so it may keep whatever state it likes.
+ */
+public interface Strategy {
+
+    /**
+     * Called once before the first tick.
+     */
+    default void start(Market market, Portfolio portfolio) {
+    }
+
+    /**
+     * Called after every tick, once the portfolio has been revalued at the
+     * new prices. Orders placed here fill at those prices.
+     */
+    void onTick(long tick, Market market, Portfolio portfolio);
+}
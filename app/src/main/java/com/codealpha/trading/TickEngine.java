@@ -0,0 +1,153 @@
+package com.codealpha.trading;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Advances every instrument in a {@link MarketData} store by one tick,
+ * spreading the work over a fork-join pool in fixed-size shards of the price
+ * columns.
+ *
+ * <p>Each shard owns a {@link SplittableRandom} split from the market seed in
+ * shard order. Shard boundaries depend only on the universe size, so a given
+ * seed produces the same price paths no matter how many worker threads run
+ * them. Once all shards finish, the new prices are published as one
+ * {@link MarketSnapshot}.
+ *
+ * <p>Prices move by a pluggable {@link PriceModel}, called once per shard over
+ * the raw price columns. The engine then rounds the shard to whole cents in
+ * fixed point, with a floor of one cent so a price can never reach zero.
+ */
+public class TickEngine {
+    public static final int SHARD_SIZE = 4096;
+
+    private final MarketData data;
+    private final SplittableRandom master;
+    private final ForkJoinPool pool;
+    private volatile PriceModel model = new PriceModels.Uniform(0.05);
+    private SplittableRandom[] shardRandoms = new SplittableRandom[0];
+
+    public TickEngine(MarketData data, long seed) {
+        this(data, seed, ForkJoinPool.commonPool());
+    }
+
+    public TickEngine(MarketData data, long seed, ForkJoinPool pool) {
+        this.data = data;
+        this.master = new SplittableRandom(seed);
+        this.pool = pool;
+    }
+
+    /**
+     * Runs one tick over the whole universe and publishes the result. Small
+     * universes that fit in one shard are ticked on the calling thread.
+     */
+    public void tick() {
+        long start = Metrics.start();
+        int shards = Math.max(1, (data.size() + SHARD_SIZE - 1) / SHARD_SIZE);
+        if (shards > shardRandoms.length) {
+            // Streams are split in shard order, so listing more instruments
+            // later never changes the paths of existing shards
+            int from = shardRandoms.length;
+            shardRandoms = Arrays.copyOf(shardRandoms, shards);
+            for (int i = from; i < shards; i++) {
+                shardRandoms[i] = master.split();
+            }
+        }
+
+        MarketSnapshot from = data.getSnapshot();
+        MarketSnapshot next = data.beginTick();
+        PriceModel model = this.model;
+        model.prepare(from.prices, next.size);
+        if (shards == 1) {
+            tickShard(0, model, from, next);
+        } else {
+            pool.invoke(new ShardTask(0, shards, model, from, next));
+        }
+        data.publish(next);
+        Metrics.TICKS.increment();
+        Metrics.MARKET_TICK.record(start);
+    }
+
+    /**
+     * Publishes externally supplied prices, such as a tick read back from a
+     * {@link TickTape}, as the next tick instead of generating one. They are
+     * rounded to whole cents, with a floor of one cent, like generated ones.
+     */
+    public void replay(double[] prices) {
+        MarketSnapshot from = data.getSnapshot();
+        MarketSnapshot next = data.beginTick();
+        if (prices.length < next.size) {
+            throw new IllegalArgumentException("Tick has " + prices.length + " prices for " + next.size
+                    + " instruments");
+        }
+        for (int id = 0; id < next.size; id++) {
+            long cents = Money.toCents(prices[id]);
+            double price = (cents < 1 ? 1 : cents) / 100.0; // Same one-cent floor as generated ticks
+            next.previousPrices[id] = from.prices[id];
+            next.prices[id] = price;
+            data.getHistory(id).add(price);
+        }
+        data.publish(next);
+    }
+
+    private void tickShard(int shard, PriceModel model, MarketSnapshot from, MarketSnapshot next) {
+        double[] current = from.prices;
+        double[] prices = next.prices;
+        double[] previous = next.previousPrices;
+        int start = shard * SHARD_SIZE;
+        int end = Math.min(next.size, start + SHARD_SIZE);
+        model.step(current, prices, start, end, shardRandoms[shard]);
+        for (int id = start; id < end; id++) {
+            long cents = (long) (prices[id] * 100.0 + 0.5); // Round to whole cents
+            prices[id] = (cents < 1 ? 1 : cents) / 100.0;
+        }
+        System.arraycopy(current, start, previous, start, end - start);
+        for (int id = start; id < end; id++) {
+            data.getHistory(id).add(prices[id]);
+        }
+    }
+
+    /**
+     * Switches the model that moves prices, from the next tick on.
+     */
+    public void setPriceModel(PriceModel model) {
+        this.model = model;
+    }
+
+    public PriceModel getPriceModel() {
+        return model;
+    }
+
+    public MarketData getData() {
+        return data;
+    }
+
+    private class ShardTask extends RecursiveAction {
+        private final int fromShard;
+        private final int toShard;
+        private final PriceModel model;
+        private final MarketSnapshot from;
+        private final MarketSnapshot next;
+
+        ShardTask(int fromShard, int toShard, PriceModel model, MarketSnapshot from, MarketSnapshot next) {
+            this.fromShard = fromShard;
+            this.toShard = toShard;
+            this.model = model;
+            this.from = from;
+            this.next = next;
+        }
+
+        @Override
+        protected void compute() {
+            if (toShard - fromShard == 1) {
+                tickShard(fromShard, model, from, next);
+                return;
+            }
+            int mid = (fromShard + toShard) >>> 1;
+            invokeAll(new ShardTask(fromShard, mid, model, from, next),
+                    new ShardTask(mid, toShard, model, from, next));
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.codealpha.trading;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary recording of a market's price stream, for replaying it through a
+ * {@link Backtest}. The header lists the instruments in stock ID order with
+ * their opening prices; after it, each tick is one record of every price as
+ * a {@code double}, so a tape of {@code n} instruments grows by {@code 8n}
+ * bytes per tick. A torn record at the end is ignored on replay.
+ */
+public final class TickTape {
+    private static final int MAGIC = 0x5054494B; // "PTIK"
+    private static final int VERSION = 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private TickTape() {
+    }
+
+    /**
+     * Starts a tape of {@code market} at {@code file}, with the current
+     * prices as the opening ones. Register the writer as a listener (or feed
+     * subscriber) to record ticks.
+     */
+    public static Writer record(Market market, Path file) throws IOException {
+        return new Writer(market, file);
+    }
+
+    public static Reader open(Path file) throws IOException {
+        return new Reader(file);
+    }
+
+    /**
+     * Appends every tick it is handed to the tape. Writes are buffered;
+     * nothing is forced to disk until {@link #close()}.
+     */
+    public static final class Writer implements MarketListener, Closeable {
+        private final FileChannel channel;
+        private final int count;
+        private final ByteBuffer buffer;
+        private long ticks;
+
+        private Writer(Market market, Path file) throws IOException {
+            this.count = market.size();
+            this.buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_BYTES, count * Double.BYTES));
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(16);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0).flip();
+            writeFully(header);
+            for (int id = 0; id < count; id++) {
+                putString(market.getTicker(id));
+                putString(market.getStock(id).name);
+            }
+            MarketSnapshot opening = market.getSnapshot();
+            for (int id = 0; id < count; id++) {
+                putDouble(opening.getPrice(id));
+            }
+        }
+
+        @Override
+        public void onTick(MarketSnapshot snapshot) {
+            try {
+                for (int id = 0; id < count; id++) {
+                    putDouble(snapshot.getPrice(id));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write tick tape", e);
+            }
+            ticks++;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel.isOpen()) {
+                buffer.flip();
+                writeFully(buffer);
+                channel.force(false);
+                channel.close();
+            }
+        }
+
+        private void putDouble(double value) throws IOException {
+            if (buffer.remaining() < Double.BYTES) {
+                buffer.flip();
+                writeFully(buffer);
+                buffer.clear();
+            }
+            buffer.putDouble(value);
+        }
+
+        private void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("'" + value + "' is too long to record");
+            }
+            if (buffer.remaining() < 2 + bytes.length) {
+                buffer.flip();
+                writeFully(buffer);
+                buffer.clear();
+            }
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    /**
+     * Reads a tape back one tick at a time.
+     */
+    public static final class Reader implements Closeable {
+        private final Path path;
+        private final FileChannel channel;
+        private ByteBuffer buffer;
+        private final String[] tickers;
+        private final String[] names;
+        private final double[] openingPrices;
+        private final long headerBytes;
+        private boolean eof;
+
+        private Reader(Path file) throws IOException {
+            this.path = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            buffer.flip();
+            try {
+                require(16);
+                if (buffer.getInt() != MAGIC) {
+                    throw new IOException("Not a tick tape: " + path);
+                }
+                int version = buffer.getInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported tick tape version " + version + ": " + path);
+                }
+                int count = buffer.getInt();
+                if (count <= 0) {
+                    throw new IOException("Tick tape lists no instruments: " + path);
+                }
+                buffer.getInt();
+                tickers = new String[count];
+                names = new String[count];
+                for (int id = 0; id < count; id++) {
+                    tickers[id] = getString();
+                    names[id] = getString();
+                }
+                openingPrices = new double[count];
+                for (int id = 0; id < count; id++) {
+                    require(Double.BYTES);
+                    openingPrices[id] = buffer.getDouble();
+                }
+                headerBytes = channel.position() - buffer.remaining();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public String[] getTickers() {
+            return tickers.clone();
+        }
+
+        public String[] getNames() {
+            return names.clone();
+        }
+
+        public double[] getOpeningPrices() {
+            return openingPrices.clone();
+        }
+
+        /**
+         * Number of complete ticks on the tape.
+         */
+        public long getTickCount() throws IOException {
+            return (channel.size() - headerBytes) / (tickers.length * Double.BYTES);
+        }
+
+        /**
+         * A market listing the tape's instruments at their opening prices,
+         * ready for {@link Market#replayTick(double[])}.
+         */
+        public Market newMarket() {
+            return Market.listing(tickers, names, openingPrices);
+        }
+
+        /**
+         * Reads the next tick into {@code prices}, indexed by stock ID.
+         * Returns {@code false} at the end of the tape.
+         */
+        public boolean next(double[] prices) throws IOException {
+            int bytes = tickers.length * Double.BYTES;
+            if (eof || !fill(bytes)) {
+                eof = true;
+                return false;
+            }
+            for (int id = 0; id < tickers.length; id++) {
+                prices[id] = buffer.getDouble();
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private String getString() throws IOException {
+            require(2);
+            int length = buffer.getShort();
+            require(length);
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void require(int bytes) throws IOException {
+            if (!fill(bytes)) {
+                throw new EOFException("Unexpected end of tick tape: " + path);
+            }
+        }
+
+        // Makes at least {@code bytes} bytes readable, or returns false at EOF
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            if (bytes > buffer.capacity()) {
+                ByteBuffer grown = ByteBuffer.allocateDirect(Integer.highestOneBit(bytes - 1) << 1);
+                grown.put(buffer);
+                buffer = grown;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    buffer.flip();
+                    return false;
+                }
+            }
+            buffer.flip();
+            return true;
+        }
+    }
+}
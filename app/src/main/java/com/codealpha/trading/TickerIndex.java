@@ -0,0 +1,185 @@
+package com.codealpha.trading;
+
+import java.util.Arrays;
+
+/**
+ * Interns ticker symbols to dense int IDs. Lookups are case-insensitive and
+ * hash the caller's characters directly, so resolving a ticker allocates
+ * nothing (no {@code toUpperCase()} copy).
+ *
+ * <p>The index also keeps the IDs in ticker order as tickers are interned,
+ * so sorted views and prefix searches never sort: a page is a slice of that
+ * order, and a prefix is found by binary search.
+ */
+public class TickerIndex {
+    private String[] tickers = new String[16];
+    private int[] table = newTable(32); // Open addressing; holds id + 1, 0 marks an empty slot
+    private int[] sorted = new int[16]; // IDs in ticker order
+    private int size;
+
+    private static int[] newTable(int capacity) {
+        return new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the ID of {@code ticker}, or -1 when it is not listed.
+     */
+    public int find(CharSequence ticker) {
+        int mask = table.length - 1;
+        int slot = hash(ticker) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (matches(tickers[entry - 1], ticker)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the ID of {@code ticker}, assigning the next free one if it is
+     * new. Tickers are stored upper-cased.
+     */
+    public int intern(String ticker) {
+        int existing = find(ticker);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == tickers.length) {
+            tickers = Arrays.copyOf(tickers, size * 2);
+            sorted = Arrays.copyOf(sorted, size * 2);
+        }
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        int id = size++;
+        tickers[id] = ticker.toUpperCase();
+        insert(id);
+        insertSorted(id);
+        return id;
+    }
+
+    public String getTicker(int id) {
+        return tickers[id];
+    }
+
+    /**
+     * ID of the ticker at {@code rank} in ticker order, from 0 to
+     * {@code size() - 1}.
+     */
+    public int idAt(int rank) {
+        return sorted[rank];
+    }
+
+    /**
+     * Rank of the first ticker in ticker order that is not less than
+     * {@code prefix} (any case); {@code size()} when there is none. Tickers
+     * starting with {@code prefix} follow it contiguously.
+     */
+    public int rankOf(CharSequence prefix) {
+        return rankOf(prefix, size);
+    }
+
+    private int rankOf(CharSequence prefix, int count) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(tickers[sorted[mid]], prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Whether the ticker of {@code id} starts with {@code prefix}, in any
+     * case.
+     */
+    public boolean startsWith(int id, CharSequence prefix) {
+        String ticker = tickers[id];
+        if (ticker.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (ticker.charAt(i) != upper(prefix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Tickers are usually listed in order, so this is most often an append
+    private void insertSorted(int id) {
+        int last = size - 1; // Already counts the new ID
+        int rank = last > 0 && tickers[sorted[last - 1]].compareTo(tickers[id]) < 0 ? last
+                : rankOf(tickers[id], last);
+        System.arraycopy(sorted, rank, sorted, rank + 1, last - rank);
+        sorted[rank] = id;
+    }
+
+    private void insert(int id) {
+        int mask = table.length - 1;
+        int slot = hash(tickers[id]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id + 1;
+    }
+
+    private void rehash(int capacity) {
+        table = newTable(capacity);
+        for (int id = 0; id < size; id++) {
+            insert(id);
+        }
+    }
+
+    private static int hash(CharSequence s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            h = 31 * h + upper(s.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String interned, CharSequence candidate) {
+        int length = interned.length();
+        if (length != candidate.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (interned.charAt(i) != upper(candidate.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Orders like String.compareTo on the upper-cased candidate
+    private static int compare(String interned, CharSequence candidate) {
+        int length = Math.min(interned.length(), candidate.length());
+        for (int i = 0; i < length; i++) {
+            int diff = interned.charAt(i) - upper(candidate.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return interned.length() - candidate.length();
+    }
+
+    private static char upper(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        }
+        return c < 128 ? c : Character.toUpperCase(c);
+    }
+}
@@ -0,0 +1,60 @@
+package com.codealpha.trading;
+
+/**
+ * Running trade aggregates for one ticker, updated as each transaction is
+ * journaled: trade count, shares traded, traded value, realized P&L and the
+ * journal sequence of the latest trade (the head of the ticker's chain of
+ * records in the journal).
+ */
+public class TickerStats {
+    long trades;
+    long volume;
+    long notionalCents;
+    long realizedPnlCents;
+    long lastSequence = -1;
+
+    TickerStats() {
+    }
+
+    TickerStats(TickerStats other) {
+        this.trades = other.trades;
+        this.volume = other.volume;
+        this.notionalCents = other.notionalCents;
+        this.realizedPnlCents = other.realizedPnlCents;
+        this.lastSequence = other.lastSequence;
+    }
+
+    void add(Transaction t) {
+        trades++;
+        volume += t.quantity;
+        notionalCents += t.totalCents;
+        realizedPnlCents += t.realizedPnlCents;
+        lastSequence = t.sequence;
+    }
+
+    public long getTrades() {
+        return trades;
+    }
+
+    /**
+     * Shares bought and sold.
+     */
+    public long getVolume() {
+        return volume;
+    }
+
+    public double getNotional() {
+        return Money.toDollars(notionalCents);
+    }
+
+    public double getRealizedPnl() {
+        return Money.toDollars(realizedPnlCents);
+    }
+
+    /**
+     * Volume-weighted average price over all trades.
+     */
+    public double getVwap() {
+        return volume == 0 ? 0 : Money.toDollars(notionalCents) / volume;
+    }
+}
@@ -0,0 +1,610 @@
+package com.codealpha.trading;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.SortedMap;
+
+/**
+ * Main application class that drives the trading simulation.
+ */
+public class TradingApp {
+    // ANSI escape codes for colors
+    public static final String ANSI_RESET = "\u001B[0m";
+    public static final String ANSI_RED = "\u001B[31m";
+    public static final String ANSI_GREEN = "\u001B[32m";
+    public static final String ANSI_YELLOW = "\u001B[33m";
+    public static final String ANSI_CYAN = "\u001B[36m";
+    public static final String ANSI_PURPLE = "\u001B[35m";
+    public static final String ANSI_BOLD = "\u001B[1m";
+
+    private static final int HISTORY_PAGE_SIZE = 20;
+    private static final int PAGE_ROWS = Math.max(1, Integer.getInteger("screen.pageRows", 25));
+    private static final int MOVERS_ROWS = 10;
+    private static final long TICK_INTERVAL_MS = Long.getLong("market.tickMs", 1000);
+
+    private Market market;
+    private MarketFeed feed;
+    private Portfolio portfolio;
+    private OrderBook orderBook;
+    private Scanner scanner;
+    private volatile long lastTick; // Updated by the display's feed subscription
+    private final Screen screen = new Screen();
+    private boolean marketLive; // Guarded by screen; whether the market view may redraw
+
+    public TradingApp() {
+        this.market = new Market();
+        this.feed = new MarketFeed(market);
+        this.portfolio = new Portfolio();
+        this.portfolio.attach(market, feed);
+        this.orderBook = new OrderBook(market, portfolio, feed);
+        this.feed.subscribe("display", snapshot -> lastTick = snapshot.getVersion(), true);
+        this.scanner = new Scanner(System.in);
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 2 && args[0].equals("--export-json")) {
+            exportJson(args[1]);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--backtest")) {
+            Backtest.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--serve")) {
+            TradingServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--load")) {
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        TradingApp app = new TradingApp();
+        app.run();
+    }
+
+    /**
+     * Writes the saved portfolio, including its full history, to a JSON file
+     * in the original portfolio.json layout.
+     */
+    private static void exportJson(String fileName) {
+        Portfolio portfolio = new Portfolio();
+        try {
+            portfolio.exportJson(Paths.get(fileName));
+            System.out.println(ANSI_GREEN + "✔ Portfolio exported to " + fileName + "." + ANSI_RESET);
+        } catch (IOException | InvalidPathException e) {
+            System.out.println(ANSI_RED + "Error exporting portfolio: " + e.getMessage() + ANSI_RESET);
+        } finally {
+            portfolio.close();
+        }
+    }
+
+    public void run() {
+        feed.start(TICK_INTERVAL_MS);
+        Metrics.startExporter();
+        while (true) {
+            displayMainMenu();
+            System.out.print(ANSI_BOLD + "Choose an option: " + ANSI_RESET);
+            String choice = scanner.nextLine();
+
+            switch (choice) {
+                case "1":
+                    viewMarket();
+                    break;
+                case "2":
+                    viewPortfolio();
+                    break;
+                case "3":
+                    handleBuy();
+                    break;
+                case "4":
+                    handleSell();
+                    break;
+                case "5":
+                    viewTransactions();
+                    break;
+                case "6":
+                    handleBasket();
+                    break;
+                case "7":
+                    handleOrderBook();
+                    break;
+                case "8":
+                    viewMetrics();
+                    break;
+                case "9":
+                    feed.stop();
+                    portfolio.close();
+                    Metrics.stopExporter();
+                    System.out.println(ANSI_CYAN + "Persistence (" + portfolio.getPersistenceMode() + "): "
+                            + portfolio.getPersistenceStats() + ANSI_RESET);
+                    System.out.println(ANSI_YELLOW + "\nSaving portfolio and exiting. Happy trading! 👋" + ANSI_RESET);
+                    return;
+                default:
+                    System.out.println(ANSI_RED + "Invalid option. Please try again." + ANSI_RESET);
+                    pressEnterToContinue();
+            }
+        }
+    }
+
+    private void clearConsole() {
+        System.out.print("\033[H\033[2J");
+        System.out.flush();
+    }
+
+    private void displayMainMenu() {
+        clearConsole();
+        System.out.println(ANSI_GREEN + "=======================================================");
+        System.out.printf("  📊 Portfolio Summary: Cash: $%,.2f | Value: $%,.2f | Tick #%,d%n", portfolio.getCash(),
+                portfolio.getTotalValue(market), lastTick);
+        System.out.println("=======================================================" + ANSI_RESET);
+        System.out.println(ANSI_CYAN + " Main Menu");
+        System.out.println("---------------------");
+        System.out.println(" [1] View Market Data 📈");
+        System.out.println(" [2] View My Portfolio 💼");
+        System.out.println(" [3] Buy Stock 🛒");
+        System.out.println(" [4] Sell Stock 💰");
+        System.out.println(" [5] View Transaction History 📜");
+        System.out.println(" [6] Execute Order Basket 🧺");
+        System.out.println(" [7] Limit & Stop Orders 📌");
+        System.out.println(" [8] Metrics ⏱️");
+        System.out.println(" [9] Exit 🚪" + ANSI_RESET);
+    }
+
+    private void pressEnterToContinue() {
+        System.out.print("\n" + ANSI_YELLOW + "Press Enter to return to the menu..." + ANSI_RESET);
+        scanner.nextLine();
+    }
+
+    /**
+     * Shows the latency and counter metrics, with options to save them as
+     * JSON or start a new measuring period.
+     */
+    private void viewMetrics() {
+        clearConsole();
+        System.out.println(ANSI_YELLOW + "--- Metrics ---" + ANSI_RESET);
+        System.out.println(Metrics.toText());
+        if (!Metrics.ENABLED) {
+            pressEnterToContinue();
+            return;
+        }
+        System.out.print(ANSI_BOLD + "[J] Save as JSON, [R] Reset, or press Enter to return: " + ANSI_RESET);
+        String choice = scanner.nextLine().trim().toUpperCase();
+        if (choice.equals("J")) {
+            System.out.print(ANSI_BOLD + "Enter the file to write: " + ANSI_RESET);
+            String fileName = scanner.nextLine().trim();
+            try {
+                Metrics.exportJson(Paths.get(fileName));
+                System.out.println(ANSI_GREEN + "✔ Metrics written to " + fileName + "." + ANSI_RESET);
+            } catch (IOException | InvalidPathException e) {
+                System.out.println(ANSI_RED + "Error writing metrics: " + e.getMessage() + ANSI_RESET);
+            }
+            pressEnterToContinue();
+        } else if (choice.equals("R")) {
+            Metrics.reset();
+            System.out.println(ANSI_GREEN + "✔ Metrics reset." + ANSI_RESET);
+            pressEnterToContinue();
+        }
+    }
+
+    /**
+     * Live market table, a page at a time. Each tick redraws only the rows
+     * that changed while the prompt waits for input.
+     */
+    private void viewMarket() {
+        int from = 0;
+        while (true) {
+            int page = from;
+            synchronized (screen) {
+                renderMarket(page);
+                screen.print();
+                marketLive = true;
+            }
+            MarketFeed.Subscription live = feed.subscribe("market-view", snapshot -> {
+                synchronized (screen) {
+                    if (marketLive) {
+                        renderMarket(page);
+                        screen.redraw();
+                    }
+                }
+            }, true);
+            String choice;
+            try {
+                choice = scanner.nextLine().trim().toUpperCase();
+            } finally {
+                synchronized (screen) {
+                    marketLive = false;
+                }
+                live.close();
+            }
+            if (choice.equals("N") && from + PAGE_ROWS < market.size()) {
+                from += PAGE_ROWS;
+            } else if (choice.equals("P") && from > 0) {
+                from = Math.max(0, from - PAGE_ROWS);
+            } else if (choice.equals("S")) {
+                System.out.print(ANSI_BOLD + "Enter a ticker or the start of one: " + ANSI_RESET);
+                String prefix = scanner.nextLine().trim();
+                int rank = market.findTickerRank(prefix);
+                if (rank < 0) {
+                    System.out.println(ANSI_RED + "Error: No ticker starts with '" + prefix.toUpperCase() + "'."
+                            + ANSI_RESET);
+                    pressEnterToContinue();
+                } else {
+                    from = rank;
+                }
+            } else if (choice.equals("M")) {
+                viewMovers();
+            } else if (!choice.equals("N") && !choice.equals("P")) {
+                return;
+            }
+        }
+    }
+
+    private void viewMovers() {
+        screen.begin().text(Screen.CLEAR);
+        market.renderMovers(screen, MOVERS_ROWS);
+        screen.print();
+        pressEnterToContinue();
+    }
+
+    // Caller holds the screen lock
+    private void renderMarket(int from) {
+        screen.begin().text(Screen.CLEAR);
+        market.renderMarket(screen, from, PAGE_ROWS);
+        screen.text("Live feed: a tick every ").number(TICK_INTERVAL_MS, 0).text(" ms, ")
+                .number(feed.getPublished(), 0).text(" published").newline();
+        for (MarketFeed.Subscription subscription : feed.getSubscriptions()) {
+            screen.text("  ").text(subscription.toString()).newline();
+        }
+        screen.newline().text(ANSI_YELLOW).text("[S] Search tickers | [M] Top movers").text(ANSI_RESET).newline();
+        renderPagePrompt(from, market.size(), "Stocks");
+    }
+
+    /**
+     * The page position and navigation prompt of a paged table, or the usual
+     * "Press Enter" prompt when everything fits on one page.
+     */
+    private void renderPagePrompt(int from, int total, String what) {
+        screen.newline().text(ANSI_YELLOW);
+        if (total <= PAGE_ROWS) {
+            screen.text("Press Enter to return to the menu...").text(ANSI_RESET);
+            return;
+        }
+        screen.text(what).text(' ').number(from + 1, 0).text('-').number(Math.min(total, from + PAGE_ROWS), 0)
+                .text(" of ").number(total, 0).text(" | ");
+        if (from + PAGE_ROWS < total) {
+            screen.text("[N] Next page | ");
+        }
+        if (from > 0) {
+            screen.text("[P] Previous page | ");
+        }
+        screen.text("[Enter] Back: ").text(ANSI_RESET);
+    }
+
+    private void viewPortfolio() {
+        SortedMap<String, StockHolding> holdings = portfolio.getHoldings();
+        int from = 0;
+        while (true) {
+            screen.begin().text(Screen.CLEAR);
+            screen.text(ANSI_GREEN).text("--- My Portfolio ---").text(ANSI_RESET).newline();
+            screen.text(ANSI_CYAN).repeat('-', 105).newline();
+            screen.left("Ticker", 10).text(" | ").right("Shares", 10).text(" | ").right("Avg. Buy Price", 15)
+                    .text(" | ").right("Current Price", 15).text(" | ").right("Market Value", 15).text(" | ")
+                    .right("Profit/Loss", 15).newline();
+            screen.repeat('-', 105).text(ANSI_RESET).newline();
+            int row = 0;
+            for (Map.Entry<String, StockHolding> entry : holdings.entrySet()) {
+                if (row++ < from) {
+                    continue;
+                }
+                if (row > from + PAGE_ROWS) {
+                    break;
+                }
+                StockHolding holding = entry.getValue();
+                long profitLoss = holding.getUnrealizedPnlCents();
+                screen.left(entry.getKey(), 10).text(" | ").number(holding.quantity, 10).text(" | ")
+                        .money(Money.toCents(holding.getAvgPrice()), 15).text(" | ")
+                        .money(Money.toCents(holding.getMarkPrice()), 15).text(" | ")
+                        .money(holding.getMarketValueCents(), 15).text(" | ")
+                        .money(profitLoss, 15, profitLoss >= 0 ? ANSI_GREEN : ANSI_RED, ANSI_RESET).newline();
+            }
+            screen.text(ANSI_CYAN).repeat('-', 105).text(ANSI_RESET).newline();
+
+            long marketValue = portfolio.getMarketValueCents();
+            screen.text(ANSI_YELLOW).newline().text("--- Financial Summary ---").newline();
+            screen.text(" Cash Balance:      ").money(portfolio.getCashCents(), 0).newline();
+            screen.text(" Total Stock Value: ").money(marketValue, 0).newline();
+            screen.text(" Unrealized P/L:    ").money(marketValue - portfolio.getCostBasisCents(), 0).newline();
+            screen.text(ANSI_BOLD).text(" Total Portfolio Value: ").money(portfolio.getTotalValueCents(market), 0)
+                    .newline().text(ANSI_RESET).newline();
+            renderPagePrompt(from, holdings.size(), "Holdings");
+            screen.print();
+
+            String choice = scanner.nextLine().trim().toUpperCase();
+            if (choice.equals("N") && from + PAGE_ROWS < holdings.size()) {
+                from += PAGE_ROWS;
+            } else if (choice.equals("P") && from > 0) {
+                from = Math.max(0, from - PAGE_ROWS);
+            } else if (!choice.equals("N") && !choice.equals("P")) {
+                return;
+            }
+        }
+    }
+
+    private void handleBuy() {
+        screen.begin().text(Screen.CLEAR);
+        market.renderMarket(screen, 0, PAGE_ROWS);
+        if (market.size() > PAGE_ROWS) {
+            screen.text("Showing the first ").number(PAGE_ROWS, 0).text(" of ").number(market.size(), 0)
+                    .text(" stocks; any listed ticker can be bought.").newline();
+        }
+        screen.newline().text("Your cash: ").text(ANSI_GREEN).money(portfolio.getCashCents(), 0).newline()
+                .text(ANSI_RESET);
+        screen.print();
+        System.out.print(ANSI_BOLD + "Enter the ticker of the stock you want to buy: " + ANSI_RESET);
+        String input = scanner.nextLine().trim();
+        int stockId = market.getStockId(input);
+
+        if (stockId < 0) {
+            System.out.println(ANSI_RED + "Error: Stock '" + input.toUpperCase() + "' not found." + ANSI_RESET);
+            int[] matches = input.isEmpty() ? new int[0] : market.searchTickers(input, 10);
+            if (matches.length > 0) {
+                StringBuilder suggestions = new StringBuilder();
+                for (int id : matches) {
+                    suggestions.append(suggestions.length() == 0 ? "" : ", ").append(market.getTicker(id));
+                }
+                System.out.println(ANSI_YELLOW + "Tickers starting with '" + input.toUpperCase() + "': "
+                        + suggestions + ANSI_RESET);
+            }
+            pressEnterToContinue();
+            return;
+        }
+
+        String ticker = market.getTicker(stockId);
+        System.out.printf("Current price of %s: " + ANSI_BOLD + "$%,.2f%n" + ANSI_RESET, ticker,
+                market.getPrice(stockId));
+        System.out.print(ANSI_BOLD + "How many shares do you want to buy? " + ANSI_RESET);
+        try {
+            int quantity = scanner.nextInt();
+            scanner.nextLine(); // Consume newline
+            if (quantity <= 0) {
+                System.out.println(ANSI_RED + "Error: Quantity must be a positive number." + ANSI_RESET);
+                return;
+            }
+            portfolio.buyStock(ticker, quantity, market);
+        } catch (InputMismatchException e) {
+            System.out.println(ANSI_RED + "Invalid input. Please enter a number for quantity." + ANSI_RESET);
+            scanner.nextLine(); // Clear invalid input
+        }
+        pressEnterToContinue();
+    }
+
+    private void handleSell() {
+        clearConsole();
+        viewPortfolio();
+
+        if (portfolio.getHoldings().isEmpty()) {
+            System.out.println(ANSI_YELLOW + "\nYou do not own any stocks to sell." + ANSI_RESET);
+            pressEnterToContinue();
+            return;
+        }
+
+        System.out.print(ANSI_BOLD + "\nEnter the ticker of the stock you want to sell: " + ANSI_RESET);
+        String ticker = scanner.nextLine().toUpperCase();
+
+        if (portfolio.getHolding(ticker) == null) {
+            System.out.println(ANSI_RED + "Error: You do not own any shares of '" + ticker + "'." + ANSI_RESET);
+            pressEnterToContinue();
+            return;
+        }
+
+        System.out.print(ANSI_BOLD + "How many shares do you want to sell? " + ANSI_RESET);
+        try {
+            int quantity = scanner.nextInt();
+            scanner.nextLine(); // Consume newline
+            if (quantity <= 0) {
+                System.out.println(ANSI_RED + "Error: Quantity must be a positive number." + ANSI_RESET);
+                return;
+            }
+            portfolio.sellStock(ticker, quantity, market);
+        } catch (InputMismatchException e) {
+            System.out.println(ANSI_RED + "Invalid input. Please enter a number for quantity." + ANSI_RESET);
+            scanner.nextLine(); // Clear invalid input
+        }
+        pressEnterToContinue();
+    }
+
+    private void handleBasket() {
+        clearConsole();
+        System.out.println(ANSI_YELLOW + "--- Execute Order Basket ---" + ANSI_RESET);
+        System.out.println("One order per line, e.g. BUY,AAPL,10 or SELL,MSFT,5. Lines starting with # are ignored.");
+        System.out.print(ANSI_BOLD + "Enter the path of the basket file: " + ANSI_RESET);
+        String path = scanner.nextLine().trim();
+
+        List<Order> orders;
+        try {
+            orders = Order.loadBasket(Paths.get(path));
+        } catch (IOException | InvalidPathException e) {
+            System.out.println(ANSI_RED + "Error: Could not read basket: " + e.getMessage() + ANSI_RESET);
+            pressEnterToContinue();
+            return;
+        }
+        if (orders.isEmpty()) {
+            System.out.println(ANSI_YELLOW + "The basket is empty." + ANSI_RESET);
+            pressEnterToContinue();
+            return;
+        }
+
+        try {
+            List<Transaction> fills = portfolio.executeBatch(orders, market);
+            long bought = 0;
+            long sold = 0;
+            for (Transaction t : fills) {
+                if (t.type.equals("BUY")) {
+                    bought += t.totalCents;
+                } else {
+                    sold += t.totalCents;
+                }
+            }
+            System.out.printf(ANSI_GREEN + "%n✔ Executed %d orders: bought $%,.2f, sold $%,.2f%n" + ANSI_RESET,
+                    fills.size(), Money.toDollars(bought), Money.toDollars(sold));
+        } catch (IllegalArgumentException e) {
+            System.out.println(ANSI_RED + "Basket rejected, nothing was traded. " + e.getMessage() + ANSI_RESET);
+        } catch (UncheckedIOException e) {
+            System.out.println(ANSI_RED + "Error: Basket not executed. " + e.getMessage() + ANSI_RESET);
+        }
+        pressEnterToContinue();
+    }
+
+    private void handleOrderBook() {
+        while (true) {
+            clearConsole();
+            System.out.println(ANSI_YELLOW + "--- Limit & Stop Orders ---" + ANSI_RESET);
+            System.out.printf("Open: %,d | Filled: %,d | Rejected: %,d%n", orderBook.getOpenOrderCount(),
+                    orderBook.getFilledCount(), orderBook.getRejectedCount());
+            System.out.println(ANSI_CYAN + "------------------------------------------------------------");
+            System.out.printf("%-12s | %-6s | %-6s | %-8s | %10s | %12s%n", "Order ID", "Type", "Kind", "Ticker",
+                    "Quantity", "Price");
+            System.out.println("------------------------------------------------------------" + ANSI_RESET);
+            Map<Long, Order> open = orderBook.getOpenOrders();
+            if (open.isEmpty()) {
+                System.out.println("No open orders.");
+            }
+            for (Map.Entry<Long, Order> entry : open.entrySet()) {
+                Order order = entry.getValue();
+                System.out.printf("%-12d | %-6s | %-6s | %-8s | %10d | %12s%n", entry.getKey(), order.type,
+                        order.kind, order.ticker, order.quantity, String.format("$%,.2f", order.getPrice()));
+            }
+
+            List<Transaction> fills = orderBook.getRecentFills();
+            if (!fills.isEmpty()) {
+                System.out.println(ANSI_CYAN + "\nRecent fills:" + ANSI_RESET);
+                for (Transaction t : fills) {
+                    String color = t.type.equals("BUY") ? ANSI_GREEN : ANSI_RED;
+                    System.out.printf("%-22s | %s%-6s%s | %-8s | %10d @ $%,.2f%n", t.formatTimestamp(), color, t.type,
+                            ANSI_RESET, t.ticker, t.quantity, t.getPrice());
+                }
+            }
+
+            System.out.println("\n[P] Place order | [C] Cancel order | [Enter] Back");
+            System.out.print(ANSI_BOLD + "Choose an option: " + ANSI_RESET);
+            switch (scanner.nextLine().trim().toUpperCase()) {
+                case "P":
+                    System.out.println("e.g. BUY,AAPL,10,LIMIT,170.00 or SELL,MSFT,5,STOP,320.00");
+                    System.out.print(ANSI_BOLD + "Enter the order: " + ANSI_RESET);
+                    try {
+                        long id = orderBook.place(Order.parse(scanner.nextLine().trim()));
+                        System.out.println(ANSI_GREEN + "✔ Order " + id + " placed." + ANSI_RESET);
+                    } catch (IllegalArgumentException e) {
+                        System.out.println(ANSI_RED + "Error: " + e.getMessage() + ANSI_RESET);
+                    }
+                    pressEnterToContinue();
+                    break;
+                case "C":
+                    System.out.print(ANSI_BOLD + "Enter the order ID: " + ANSI_RESET);
+                    try {
+                        long id = Long.parseLong(scanner.nextLine().trim());
+                        if (orderBook.cancel(id)) {
+                            System.out.println(ANSI_GREEN + "✔ Order " + id + " cancelled." + ANSI_RESET);
+                        } else {
+                            System.out.println(ANSI_RED + "Error: No open order " + id + "." + ANSI_RESET);
+                        }
+                    } catch (NumberFormatException e) {
+                        System.out.println(ANSI_RED + "Invalid input. Please enter an order ID." + ANSI_RESET);
+                    }
+                    pressEnterToContinue();
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    private void viewTransactions() {
+        TransactionQuery query = TransactionQuery.ALL;
+        long cursor = TransactionPage.FIRST;
+        while (true) {
+            clearConsole();
+            System.out.println(ANSI_YELLOW + "--- Transaction History ---" + ANSI_RESET);
+            if (query.ticker != null) {
+                TickerStats stats = portfolio.getTickerStats(query.ticker);
+                if (stats != null) {
+                    System.out.printf("%s: %,d trades | %,d shares | VWAP $%,.2f | Realized P&L $%,.2f%n",
+                            query.ticker, stats.getTrades(), stats.getVolume(), stats.getVwap(),
+                            stats.getRealizedPnl());
+                }
+            }
+            if (query.from != Long.MIN_VALUE) {
+                System.out.printf("From %s to %s%n", Transaction.formatTimestamp(query.from),
+                        Transaction.formatTimestamp(query.to - 1));
+            }
+            screen.begin().text(ANSI_CYAN).repeat('-', 92).newline();
+            screen.left("Timestamp", 22).text(" | ").left("Type", 6).text(" | ").left("Ticker", 8).text(" | ")
+                    .right("Quantity", 10).text(" | ").right("Price/Share", 12).text(" | ").right("Total Value", 15)
+                    .newline();
+            screen.repeat('-', 92).text(ANSI_RESET).newline();
+
+            TransactionPage page = portfolio.queryTransactions(query, cursor, HISTORY_PAGE_SIZE);
+            if (page.transactions.isEmpty()) {
+                screen.text(query == TransactionQuery.ALL && cursor == TransactionPage.FIRST
+                        ? "No transactions have been made yet." : "No matching transactions.").newline();
+            }
+            for (Transaction t : page.transactions) {
+                screen.left(t.formatTimestamp(), 22).text(" | ").text(t.type.equals("BUY") ? ANSI_GREEN : ANSI_RED)
+                        .left(t.type, 6).text(ANSI_RESET).text(" | ").left(t.ticker, 8).text(" | ")
+                        .number(t.quantity, 10).text(" | ").money(t.priceCents, 12).text(" | ")
+                        .money(t.totalCents, 15).newline();
+            }
+            screen.text(ANSI_CYAN).repeat('-', 92).text(ANSI_RESET).newline();
+            screen.print();
+
+            System.out.println((page.hasMore() ? "[N] Next page | " : "")
+                    + "[T] Filter by ticker | [D] Filter by date | [A] Show all | [Enter] Back");
+            System.out.print(ANSI_BOLD + "Choose an option: " + ANSI_RESET);
+            switch (scanner.nextLine().trim().toUpperCase()) {
+                case "N":
+                    if (page.hasMore()) {
+                        cursor = page.nextCursor;
+                    }
+                    break;
+                case "T":
+                    System.out.print(ANSI_BOLD + "Enter the ticker: " + ANSI_RESET);
+                    query = query.withTicker(scanner.nextLine());
+                    cursor = TransactionPage.FIRST;
+                    break;
+                case "D":
+                    try {
+                        System.out.print(ANSI_BOLD + "From date (yyyy-MM-dd): " + ANSI_RESET);
+                        LocalDate from = LocalDate.parse(scanner.nextLine().trim());
+                        System.out.print(ANSI_BOLD + "To date, inclusive (yyyy-MM-dd): " + ANSI_RESET);
+                        LocalDate to = LocalDate.parse(scanner.nextLine().trim());
+                        query = query.between(startOfDay(from), startOfDay(to.plusDays(1)));
+                        cursor = TransactionPage.FIRST;
+                    } catch (DateTimeParseException e) {
+                        System.out.println(ANSI_RED + "Error: Dates must look like 2025-07-27." + ANSI_RESET);
+                        pressEnterToContinue();
+                    }
+                    break;
+                case "A":
+                    query = TransactionQuery.ALL;
+                    cursor = TransactionPage.FIRST;
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    private static long startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,530 @@
+package com.codealpha.trading;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless trading service: the quote, buy, sell, portfolio and history
+ * operations of the console menu as a local JSON-over-HTTP API, for scripts
+ * and load tests. Endpoints:
+ *
+ * <ul>
+ * <li>{@code GET /quote?ticker=AAPL} and {@code GET /quotes}</li>
+ * <li>{@code GET /search?prefix=AA&limit=}, quotes of the tickers starting
+ * with a prefix, in ticker order</li>
+ * <li>{@code GET /movers?limit=10}, the biggest gainers and losers of the
+ * last tick</li>
+ * <li>{@code POST /buy} and {@code POST /sell} with
+ * {@code {"ticker":"AAPL","quantity":3}}, answering with the fill, or 409
+ * when there is not enough cash or stock</li>
+ * <li>{@code GET /portfolio}</li>
+ * <li>{@code GET /history?ticker=&type=&cursor=&limit=}, newest first; pass
+ * the returned {@code nextCursor} to page on</li>
+ * <li>{@code GET /metrics}, the {@link Metrics} dump</li>
+ * </ul>
+ *
+ * <p>Amounts are dollars, as in {@code portfolio.json}. Requests run on
+ * virtual threads when the JVM has them and on a fixed pool of
+ * {@code -Dserver.threads} (default 64) otherwise. The JSON type adapters
+ * are looked up once and shared by every request. Quotes come from the
+ * market's per-tick {@link Quotes}, and the encoded {@code /quotes} body is
+ * kept until the next tick, so polling clients do not re-encode the whole
+ * universe.
+ */
+public class TradingServer implements Closeable {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay"; // Read once, at first use
+
+    private static final Gson GSON = new Gson();
+    private static final TypeAdapter<OrderRequest> ORDER_REQUEST = GSON.getAdapter(OrderRequest.class);
+    private static final TypeAdapter<QuoteJson> QUOTE = GSON.getAdapter(QuoteJson.class);
+    private static final TypeAdapter<QuotesJson> QUOTES = GSON.getAdapter(QuotesJson.class);
+    private static final TypeAdapter<MoversJson> MOVERS = GSON.getAdapter(MoversJson.class);
+    private static final TypeAdapter<FillJson> FILL = GSON.getAdapter(FillJson.class);
+    private static final TypeAdapter<AccountJson> ACCOUNT = GSON.getAdapter(AccountJson.class);
+    private static final TypeAdapter<HistoryJson> HISTORY = GSON.getAdapter(HistoryJson.class);
+    private static final TypeAdapter<ErrorJson> ERROR = GSON.getAdapter(ErrorJson.class);
+
+    private final Market market;
+    private final Portfolio portfolio;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile EncodedQuotes encodedQuotes = new EncodedQuotes(Quotes.EMPTY, new byte[0]);
+
+    /**
+     * Binds to {@code address} without starting; use port 0 for any free
+     * port.
+     */
+    public TradingServer(Market market, Portfolio portfolio, InetSocketAddress address) throws IOException {
+        this.market = market;
+        this.portfolio = portfolio;
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            // Headers and body are separate writes, so with Nagle on every reply waits out a delayed ACK
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        this.server = HttpServer.create(address, 1024);
+        this.executor = newRequestExecutor(Integer.getInteger("server.threads", 64));
+        server.setExecutor(executor);
+        server.createContext("/quote", exchange -> handle(exchange, "GET", this::quote));
+        server.createContext("/quotes", exchange -> handle(exchange, "GET", this::quotes));
+        server.createContext("/search", exchange -> handle(exchange, "GET", this::search));
+        server.createContext("/movers", exchange -> handle(exchange, "GET", this::movers));
+        server.createContext("/buy", exchange -> handle(exchange, "POST", e -> trade(e, true)));
+        server.createContext("/sell", exchange -> handle(exchange, "POST", e -> trade(e, false)));
+        server.createContext("/portfolio", exchange -> handle(exchange, "GET", this::account));
+        server.createContext("/history", exchange -> handle(exchange, "GET", this::history));
+        server.createContext("/metrics", exchange -> handle(exchange, "GET", e -> send(e, 200, Metrics::writeJson)));
+    }
+
+    /**
+     * A thread per task on virtual threads when the running JVM has them
+     * (found reflectively, so the build still targets Java 17), else a fixed
+     * pool of {@code fallbackThreads} daemon threads.
+     */
+    static ExecutorService newRequestExecutor(int fallbackThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(1, fallbackThreads), task -> {
+                Thread thread = new Thread(task, "trading-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Whether {@link #newRequestExecutor} runs tasks on virtual threads.
+     */
+    static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops accepting requests, waits up to a second for ones in flight and
+     * shuts the request threads down. The portfolio is left open.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    // Request handling
+
+    private interface Endpoint {
+        void serve(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Thrown by endpoints to answer with an error status and message.
+     */
+    private static final class RequestException extends RuntimeException {
+        final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                throw new RequestException(405, "Use " + method + " for " + exchange.getHttpContext().getPath());
+            }
+            endpoint.serve(exchange);
+        } catch (RequestException e) {
+            send(exchange, e.status, ERROR, new ErrorJson(e.getMessage()));
+        } catch (IllegalArgumentException | JsonParseException e) {
+            send(exchange, 400, ERROR, new ErrorJson(e.getMessage()));
+        } catch (RuntimeException e) {
+            send(exchange, 500, ERROR, new ErrorJson(e.toString()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private static <T> void send(HttpExchange exchange, int status, TypeAdapter<T> adapter, T body)
+            throws IOException {
+        send(exchange, status, json -> adapter.write(json, body));
+    }
+
+    /**
+     * Encodes the whole body before sending it, so it goes out with its
+     * length in one write rather than in chunks.
+     */
+    private static void send(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        send(exchange, status, encode(body));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] encode(JsonBody body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            body.write(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void quote(HttpExchange exchange) throws IOException {
+        String ticker = query(exchange).get("ticker");
+        if (ticker == null) {
+            throw new IllegalArgumentException("Missing ticker parameter");
+        }
+        int id = market.getStockId(ticker);
+        Quotes quotes = market.getQuotes();
+        if (id < 0 || id >= quotes.size()) {
+            throw new RequestException(404, "Unknown ticker '" + ticker + "'");
+        }
+        send(exchange, 200, QUOTE, quoteJson(quotes, id));
+    }
+
+    /**
+     * Every quote, encoded once per tick and then served from the cached
+     * bytes.
+     */
+    private void quotes(HttpExchange exchange) throws IOException {
+        Quotes quotes = market.getQuotes();
+        EncodedQuotes encoded = encodedQuotes;
+        if (encoded.quotes != quotes) {
+            QuotesJson body = new QuotesJson();
+            body.quotes = new ArrayList<>(quotes.size());
+            for (int id = 0; id < quotes.size(); id++) {
+                body.quotes.add(quoteJson(quotes, id));
+            }
+            encoded = new EncodedQuotes(quotes, encode(json -> QUOTES.write(json, body)));
+            encodedQuotes = encoded; // Racing requests may both encode; either result is right
+        }
+        send(exchange, 200, encoded.bytes);
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        Map<String, String> params = query(exchange);
+        String prefix = params.get("prefix");
+        if (prefix == null) {
+            throw new IllegalArgumentException("Missing prefix parameter");
+        }
+        Quotes quotes = market.getQuotes();
+        QuotesJson body = new QuotesJson();
+        body.quotes = new ArrayList<>();
+        for (int id : market.searchTickers(prefix, limit(params))) {
+            if (id < quotes.size()) {
+                body.quotes.add(quoteJson(quotes, id));
+            }
+        }
+        send(exchange, 200, QUOTES, body);
+    }
+
+    private void movers(HttpExchange exchange) throws IOException {
+        int limit = limit(query(exchange));
+        Quotes quotes = market.getQuotes();
+        MoversJson body = new MoversJson();
+        body.tick = quotes.getTick();
+        body.gainers = new ArrayList<>(limit);
+        for (int id : quotes.topMovers(limit, true)) {
+            body.gainers.add(quoteJson(quotes, id));
+        }
+        body.losers = new ArrayList<>(limit);
+        for (int id : quotes.topMovers(limit, false)) {
+            body.losers.add(quoteJson(quotes, id));
+        }
+        send(exchange, 200, MOVERS, body);
+    }
+
+    private QuoteJson quoteJson(Quotes quotes, int id) {
+        QuoteJson quote = new QuoteJson();
+        quote.ticker = market.getTicker(id);
+        quote.name = market.getStock(id).name;
+        quote.price = Money.toDollars(quotes.getPriceCents(id));
+        quote.change = Money.toDollars(quotes.getChangeCents(id));
+        quote.tick = quotes.getTick();
+        return quote;
+    }
+
+    private static int limit(Map<String, String> params) {
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ", got " + limit);
+        }
+        return limit;
+    }
+
+    private void trade(HttpExchange exchange, boolean buy) throws IOException {
+        OrderRequest order;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(exchange.getRequestBody(),
+                StandardCharsets.UTF_8))) {
+            order = ORDER_REQUEST.read(reader);
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonParseException("Malformed order: " + e.getMessage(), e);
+        }
+        if (order == null || order.ticker == null) {
+            throw new IllegalArgumentException("Order needs a ticker and a quantity");
+        }
+        if (order.quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive, got " + order.quantity);
+        }
+        if (market.getStockId(order.ticker) < 0) {
+            throw new RequestException(404, "Unknown ticker '" + order.ticker + "'");
+        }
+        Transaction fill = buy ? portfolio.executeBuy(order.ticker, order.quantity, market)
+                : portfolio.executeSell(order.ticker, order.quantity, market);
+        if (fill == null) {
+            throw new RequestException(409, buy ? "Insufficient funds" : "Not enough shares to sell");
+        }
+        send(exchange, 200, FILL, new FillJson(fill));
+    }
+
+    private void account(HttpExchange exchange) throws IOException {
+        AccountJson body = new AccountJson();
+        body.cash = portfolio.getCash();
+        body.marketValue = portfolio.getMarketValue();
+        body.unrealizedPnl = portfolio.getUnrealizedPnl();
+        body.totalValue = Money.toDollars(portfolio.getTotalValueCents(market));
+        body.holdings = new ArrayList<>();
+        for (Map.Entry<String, StockHolding> entry : portfolio.getHoldings().entrySet()) {
+            StockHolding holding = entry.getValue();
+            HoldingJson json = new HoldingJson();
+            json.ticker = entry.getKey();
+            json.quantity = holding.quantity;
+            json.avgPrice = holding.getAvgPrice();
+            json.price = holding.getMarkPrice();
+            json.marketValue = holding.getMarketValue();
+            body.holdings.add(json);
+        }
+        send(exchange, 200, ACCOUNT, body);
+    }
+
+    private void history(HttpExchange exchange) throws IOException {
+        Map<String, String> params = query(exchange);
+        TransactionQuery query = TransactionQuery.ALL;
+        if (params.containsKey("ticker")) {
+            query = query.withTicker(params.get("ticker"));
+        }
+        if (params.containsKey("type")) {
+            query = query.withType(params.get("type").toUpperCase());
+        }
+        long cursor = params.containsKey("cursor") ? Long.parseLong(params.get("cursor")) : TransactionPage.FIRST;
+        int limit = limit(params);
+        TransactionPage page = portfolio.queryTransactions(query, cursor, limit);
+        HistoryJson body = new HistoryJson();
+        body.transactions = new ArrayList<>(page.transactions.size());
+        for (Transaction t : page.transactions) {
+            body.transactions.add(new FillJson(t));
+        }
+        body.nextCursor = page.hasMore() ? page.nextCursor : null;
+        send(exchange, 200, HISTORY, body);
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && eq < pair.length() - 1) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    // Wire formats
+
+    private static final class OrderRequest {
+        String ticker;
+        int quantity;
+    }
+
+    private static final class QuoteJson {
+        String ticker;
+        String name;
+        double price;
+        double change;
+        long tick;
+    }
+
+    private static final class QuotesJson {
+        List<QuoteJson> quotes;
+    }
+
+    private static final class MoversJson {
+        long tick;
+        List<QuoteJson> gainers;
+        List<QuoteJson> losers;
+    }
+
+    // The /quotes body as encoded for one tick
+    private static final class EncodedQuotes {
+        final Quotes quotes;
+        final byte[] bytes;
+
+        EncodedQuotes(Quotes quotes, byte[] bytes) {
+            this.quotes = quotes;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class FillJson {
+        long timestamp;
+        String type;
+        String ticker;
+        int quantity;
+        double price;
+        double total;
+
+        FillJson(Transaction t) {
+            this.timestamp = t.timestamp;
+            this.type = t.type;
+            this.ticker = t.ticker;
+            this.quantity = t.quantity;
+            this.price = t.getPrice();
+            this.total = t.getTotal();
+        }
+    }
+
+    private static final class HoldingJson {
+        String ticker;
+        int quantity;
+        double avgPrice;
+        double price;
+        double marketValue;
+    }
+
+    private static final class AccountJson {
+        double cash;
+        double marketValue;
+        double unrealizedPnl;
+        double totalValue;
+        List<HoldingJson> holdings;
+    }
+
+    private static final class HistoryJson {
+        List<FillJson> transactions;
+        Long nextCursor; // null on the last page
+    }
+
+    private static final class ErrorJson {
+        final String error;
+
+        ErrorJson(String error) {
+            this.error = error;
+        }
+    }
+
+    /**
+     * Command line entry point, reached with {@code --serve}. Options:
+     * {@code --port N} (default 8080; 0 picks a free port) and
+     * {@code --bind ADDRESS} (default loopback). Ticks the market every
+     * {@code -Dmarket.tickMs} and trades the saved portfolio until the JVM is
+     * stopped, saving it on the way out.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        String bind = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--port":
+                        port = Integer.parseInt(args[i + 1]);
+                        break;
+                    case "--bind":
+                        bind = args[i + 1];
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error: " + e.getMessage() + TradingApp.ANSI_RESET);
+            return;
+        }
+
+        Market market = new Market();
+        MarketFeed feed = new MarketFeed(market);
+        Portfolio portfolio = new Portfolio();
+        portfolio.attach(market, feed);
+        TradingServer server;
+        try {
+            InetAddress address = bind == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bind);
+            server = new TradingServer(market, portfolio, new InetSocketAddress(address, port));
+        } catch (IOException e) {
+            System.out.println(TradingApp.ANSI_RED + "Error starting server: " + e.getMessage()
+                    + TradingApp.ANSI_RESET);
+            portfolio.close();
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            feed.stop();
+            portfolio.close();
+            Metrics.stopExporter();
+            System.out.println(TradingApp.ANSI_YELLOW + "Server stopped, portfolio saved." + TradingApp.ANSI_RESET);
+        }));
+        feed.start(Long.getLong("market.tickMs", 1000));
+        server.start();
+        Metrics.startExporter();
+        InetSocketAddress address = server.getAddress();
+        System.out.println(TradingApp.ANSI_GREEN + "✔ Trading server listening on http://"
+                + address.getHostString() + ":" + address.getPort() + " ("
+                + (hasVirtualThreads() ? "virtual threads" : "thread pool") + "). Press Ctrl+C to stop."
+                + TradingApp.ANSI_RESET);
+        // The server's dispatcher thread keeps the JVM running until it is stopped
+    }
+}
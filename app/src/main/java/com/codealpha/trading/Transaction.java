@@ -0,0 +1,70 @@
+package com.codealpha.trading;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Represents a single buy or sell transaction.
+ */
+public class Transaction {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public long timestamp; // Epoch milliseconds
+    public String type; // "BUY" or "SELL"
+    public String ticker;
+    public int quantity;
+    public long priceCents;
+    public long totalCents;
+    public long realizedPnlCents; // SELL only: proceeds less the cost basis of the shares sold
+
+    // Journal position, assigned by PortfolioStore; -1 until then
+    transient long sequence = -1;
+    transient long previous = -1; // Sequence of the previous record for the same ticker
+
+    public Transaction(long timestamp, String type, String ticker, int quantity, long priceCents) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.ticker = ticker;
+        this.quantity = quantity;
+        this.priceCents = priceCents;
+        this.totalCents = Money.times(priceCents, quantity);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public double getPrice() {
+        return Money.toDollars(priceCents);
+    }
+
+    public double getTotal() {
+        return Money.toDollars(totalCents);
+    }
+
+    public double getRealizedPnl() {
+        return Money.toDollars(realizedPnlCents);
+    }
+
+    /**
+     * The timestamp as {@code yyyy-MM-dd HH:mm:ss} in the local time zone.
+     */
+    public String formatTimestamp() {
+        return formatTimestamp(timestamp);
+    }
+
+    public static String formatTimestamp(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                .format(TIMESTAMP_FORMAT);
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-dd HH:mm:ss} local time into epoch milliseconds.
+     */
+    public static long parseTimestamp(String text) {
+        return LocalDateTime.parse(text.trim(), TIMESTAMP_FORMAT).atZone(ZoneId.systemDefault()).toInstant()
+                .toEpochMilli();
+    }
+}
@@ -0,0 +1,48 @@
+package com.codealpha.trading;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of the transaction history as of the moment it was created,
+ * paged in from the journal on demand. Only the page around the most recent
+ * access is kept in memory. Not safe for use from several threads at once.
+ */
+class TransactionHistory extends AbstractList<Transaction> implements RandomAccess {
+    private static final int PAGE_SIZE = 256;
+
+    private final PortfolioStore store;
+    private final int size;
+    private long pageStart = -1;
+    private List<Transaction> page;
+
+    TransactionHistory(PortfolioStore store, long size) {
+        this.store = store;
+        this.size = Math.toIntExact(size);
+    }
+
+    @Override
+    public Transaction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        long start = index - index % PAGE_SIZE;
+        if (start != pageStart) {
+            try {
+                page = store.read(start, (int) Math.min(PAGE_SIZE, size - start));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read transaction history", e);
+            }
+            pageStart = start;
+        }
+        return page.get((int) (index - start));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
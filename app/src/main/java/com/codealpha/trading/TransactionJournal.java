@@ -0,0 +1,150 @@
+package com.codealpha.trading;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only write-ahead log of executed transactions. After a 16-byte
+ * header, each transaction is one fixed-size {@link RecordCodec} record, so
+ * record {@code i} lives at a known offset and history can be read a page at
+ * a time instead of all at once. When records are forced to disk is decided
+ * by the owning {@link PortfolioStore}.
+ */
+public class TransactionJournal implements Closeable {
+    private static final int MAGIC = 0x5054584A; // "PTXJ"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = RecordCodec.TRANSACTION_BYTES;
+
+    private final Path path;
+    private ByteBuffer writeBuffer = ByteBuffer.allocateDirect(64 * RECORD_BYTES);
+    private FileChannel channel;
+    private volatile long sequence;
+    private boolean dirty;
+
+    public TransactionJournal(String fileName) {
+        this.path = Paths.get(fileName);
+    }
+
+    /**
+     * Opens the journal and returns the number of complete records. Torn or
+     * corrupt records at the tail (left behind by a crash mid-append) are
+     * truncated away.
+     */
+    public long open() throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (channel.size() < HEADER_BYTES) {
+            header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(0).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+        } else {
+            readFully(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(8) != RECORD_BYTES) {
+                throw new IOException("Not a transaction journal: " + path);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported journal version " + header.getInt(4) + ": " + path);
+            }
+        }
+
+        long count = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        while (count > 0) {
+            record.clear();
+            readFully(record, offsetOf(count - 1));
+            if (RecordCodec.getTransaction(record.flip()) != null) {
+                break;
+            }
+            count--;
+        }
+        if (offsetOf(count) < channel.size()) {
+            channel.truncate(offsetOf(count));
+        }
+        channel.position(offsetOf(count));
+        this.sequence = count;
+        return count;
+    }
+
+    /**
+     * Reads {@code count} records starting at record {@code from} (0-based)
+     * into {@code into}. Only records already appended may be read; this is
+     * safe to call while another thread appends.
+     */
+    public void read(long from, int count, List<Transaction> into) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_BYTES);
+        readFully(buffer, offsetOf(from));
+        buffer.flip();
+        for (int i = 0; i < count; i++) {
+            Transaction t = RecordCodec.getTransaction(buffer);
+            if (t == null) {
+                throw new IOException("Corrupt journal record " + (from + i) + ": " + path);
+            }
+            t.sequence = from + i;
+            into.add(t);
+        }
+    }
+
+    /**
+     * Appends a batch of transactions with a single write and returns the
+     * sequence number (1-based) of the last one. Records reach the OS but are
+     * not forced to disk until {@link #sync()}.
+     */
+    public long append(List<Transaction> batch) throws IOException {
+        int bytes = batch.size() * RECORD_BYTES;
+        if (writeBuffer.capacity() < bytes) {
+            writeBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(bytes - 1) << 1);
+        }
+        writeBuffer.clear();
+        for (Transaction t : batch) {
+            RecordCodec.putTransaction(writeBuffer, t);
+        }
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        sequence += batch.size();
+        dirty = true;
+        return sequence;
+    }
+
+    public void sync() throws IOException {
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            sync();
+            channel.close();
+        }
+    }
+
+    private static long offsetOf(long record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of journal: " + path);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.codealpha.trading;
+
+import java.util.List;
+
+/**
+ * One page of a transaction query, newest first. Pass {@link #nextCursor} to
+ * the next query call to continue where this page stopped.
+ */
+public class TransactionPage {
+    /** Cursor for the first page: start at the newest record. */
+    public static final long FIRST = Long.MAX_VALUE;
+    /** Cursor returned once there are no more records. */
+    public static final long END = -1;
+
+    public final List<Transaction> transactions;
+    public final long nextCursor;
+
+    TransactionPage(List<Transaction> transactions, long nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != END;
+    }
+}
@@ -0,0 +1,43 @@
+package com.codealpha.trading;
+
+/**
+ * Filter for {@link Portfolio#queryTransactions}: optionally one ticker, one
+ * side and a timestamp range in epoch milliseconds ({@code from} inclusive,
+ * {@code to} exclusive). Queries are immutable; the {@code with} methods
+ * return narrowed copies.
+ */
+public class TransactionQuery {
+    public static final TransactionQuery ALL = new TransactionQuery(null, null, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    public final String ticker; // null for any
+    public final String type; // "BUY", "SELL" or null for either
+    public final long from;
+    public final long to;
+
+    public TransactionQuery(String ticker, String type, long from, long to) {
+        if (type != null && !type.equals("BUY") && !type.equals("SELL")) {
+            throw new IllegalArgumentException("Transaction type must be BUY or SELL, got '" + type + "'");
+        }
+        this.ticker = ticker == null ? null : ticker.trim().toUpperCase();
+        this.type = type;
+        this.from = from;
+        this.to = to;
+    }
+
+    public TransactionQuery withTicker(String ticker) {
+        return new TransactionQuery(ticker, type, from, to);
+    }
+
+    public TransactionQuery withType(String type) {
+        return new TransactionQuery(ticker, type, from, to);
+    }
+
+    public TransactionQuery between(long from, long to) {
+        return new TransactionQuery(ticker, type, from, to);
+    }
+
+    boolean matches(Transaction t) {
+        return (ticker == null || ticker.equals(t.ticker)) && (type == null || type.equals(t.type))
+                && t.timestamp >= from && t.timestamp < to;
+    }
+}
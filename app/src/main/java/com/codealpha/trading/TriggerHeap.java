@@ -0,0 +1,110 @@
+package com.codealpha.trading;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of resting orders keyed by trigger price, on parallel
+ * primitive arrays. Ties go to the lower order ID, i.e. the earlier order, so
+ * orders at the same price fire first-in, first-out. The {@link OrderBook}
+ * removes cancelled orders lazily and asks for a {@link #compact} once they
+ * pile up.
+ */
+final class TriggerHeap {
+    private long[] keys = new long[16];
+    private long[] ids = new long[16];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long peekKey() {
+        return keys[0];
+    }
+
+    long peekId() {
+        return ids[0];
+    }
+
+    void add(long key, long id) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        keys[size] = key;
+        ids[size] = id;
+        siftUp(size++);
+    }
+
+    void removeTop() {
+        size--;
+        if (size > 0) {
+            keys[0] = keys[size];
+            ids[0] = ids[size];
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Drops every entry whose order is no longer open in {@code book} and
+     * restores the heap order in O(n).
+     */
+    void compact(OrderBook book) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (book.isOpen(ids[i])) {
+                keys[kept] = keys[i];
+                ids[kept++] = ids[i];
+            }
+        }
+        size = kept;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && ids[a] < ids[b]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(i, parent)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(child + 1, child)) {
+                child++;
+            }
+            if (!less(child, i)) {
+                break;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
@@ -0,0 +1,59 @@
+package com.codealpha.trading;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BacktestTest {
+    private static final long TICKS = 20_000;
+
+    private static Backtest momentum() {
+        return new Backtest(Strategies.named("momentum"), 100000.00, 100);
+    }
+
+    @Test
+    void replayOfARecordedTapeIsBitIdentical(@TempDir Path dir) throws IOException {
+        Path tape = dir.resolve("ticks.tape");
+        Backtest.Result recorded = momentum().run(42, 0, TICKS, tape);
+        Backtest.Result replayed = momentum().replay(tape);
+        assertTrue(recorded.trades > 0);
+        assertEquals(recorded.ticks, replayed.ticks);
+        assertEquals(recorded.cashCents, replayed.cashCents);
+        assertEquals(recorded.marketValueCents, replayed.marketValueCents);
+        assertEquals(recorded.realizedPnlCents, replayed.realizedPnlCents);
+        assertArrayEquals(recorded.pnl, replayed.pnl);
+        assertEquals(recorded.digest(), replayed.digest());
+    }
+
+    @Test
+    void syntheticUniverseReplaysToo(@TempDir Path dir) throws IOException {
+        Path tape = dir.resolve("synthetic.tape");
+        Backtest.Result recorded = momentum().run(7, 200, 2_000, tape);
+        assertEquals(recorded.digest(), momentum().replay(tape).digest());
+    }
+
+    @Test
+    void sameSeedGivesTheSameRun() throws IOException {
+        assertEquals(momentum().run(42, 0, TICKS, null).digest(), momentum().run(42, 0, TICKS, null).digest());
+        assertNotEquals(momentum().run(42, 0, TICKS, null).digest(), momentum().run(43, 0, TICKS, null).digest());
+    }
+
+    @Test
+    void tapeWithoutInstrumentsIsRejected(@TempDir Path dir) throws IOException {
+        Path tape = dir.resolve("empty.tape");
+        Market empty = Market.listing(new String[0], new String[0], new double[0]);
+        try (TickTape.Writer writer = TickTape.record(empty, tape)) {
+            empty.addListener(writer);
+            empty.replayTick(new double[0]);
+        }
+        assertThrows(IOException.class, () -> momentum().replay(tape));
+    }
+}
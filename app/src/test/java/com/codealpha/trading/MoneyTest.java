@@ -0,0 +1,61 @@
+package com.codealpha.trading;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoneyTest {
+
+    @Test
+    void toCentsRoundsHalvesAwayFromZero() {
+        assertEquals(17520, Money.toCents(175.20));
+        assertEquals(1, Money.toCents(0.005));
+        assertEquals(-1, Money.toCents(-0.005));
+        assertEquals(-17520, Money.toCents(-175.20));
+        assertEquals(0, Money.toCents(0.004));
+        assertEquals(0, Money.toCents(-0.004));
+    }
+
+    @Test
+    void shareRoundsToNearestCentWithHalvesUp() {
+        assertEquals(333, Money.share(1000, 1, 3));
+        assertEquals(667, Money.share(1000, 2, 3));
+        assertEquals(50, Money.share(100, 1, 2));
+        assertEquals(1, Money.share(1, 1, 2)); // Half a cent rounds up
+        assertEquals(0, Money.share(1, 1, 3));
+    }
+
+    @Test
+    void shareOfTheWholeOrNothingIsExact() {
+        assertEquals(123_456_789, Money.share(123_456_789, 7, 7));
+        assertEquals(0, Money.share(123_456_789, 0, 7));
+    }
+
+    @Test
+    void successiveSharesReleaseTheWholeCostBasis() {
+        // Selling a position in parts, each taking its pro-rata share of what remains
+        long cost = 1_000_003;
+        int quantity = 7;
+        long released = 0;
+        while (quantity > 0) {
+            long part = Money.share(cost, Math.min(3, quantity), quantity);
+            released += part;
+            cost -= part;
+            quantity -= Math.min(3, quantity);
+        }
+        assertEquals(1_000_003, released);
+        assertEquals(0, cost);
+    }
+
+    @Test
+    void shareDoesNotOverflowForLargeAmounts() {
+        long cents = Long.MAX_VALUE / 2;
+        int denominator = Integer.MAX_VALUE;
+        int numerator = denominator - 1;
+        BigInteger exact = BigInteger.valueOf(cents).multiply(BigInteger.valueOf(numerator))
+                .add(BigInteger.valueOf(denominator / 2)).divide(BigInteger.valueOf(denominator));
+        assertEquals(exact.longValueExact(), Money.share(cents, numerator, denominator));
+    }
+}
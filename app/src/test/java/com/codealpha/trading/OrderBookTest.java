@@ -0,0 +1,96 @@
+package com.codealpha.trading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+    private Market market;
+    private Portfolio portfolio;
+    private OrderBook book;
+
+    @BeforeEach
+    void setUp() {
+        market = Market.listing(new String[] {"ACME"}, new String[] {"Acme Corp."}, new double[] {100.00});
+        portfolio = Portfolio.inMemory(100000.00, () -> 0);
+        book = new OrderBook(market, portfolio);
+    }
+
+    private void tick(double price) {
+        market.replayTick(new double[] {price});
+    }
+
+    private int shares() {
+        StockHolding holding = portfolio.getHolding("ACME");
+        return holding == null ? 0 : holding.quantity;
+    }
+
+    @Test
+    void buyLimitFiresAtOrBelowItsPrice() {
+        book.place(Order.limit("BUY", "ACME", 10, 95.00));
+        tick(95.01);
+        assertEquals(0, book.getFilledCount());
+        assertEquals(1, book.getOpenOrderCount());
+        tick(95.00);
+        assertEquals(1, book.getFilledCount());
+        assertEquals(0, book.getOpenOrderCount());
+        assertEquals(10, shares());
+        assertEquals(100000_00 - 10 * 95_00, portfolio.getCashCents());
+    }
+
+    @Test
+    void sellStopFiresWhenThePriceFallsToIt() {
+        tick(100.00);
+        portfolio.executeBuy("ACME", 10, market);
+        book.place(Order.stop("SELL", "ACME", 10, 90.00));
+        tick(90.01);
+        assertEquals(10, shares());
+        tick(89.50);
+        assertEquals(1, book.getFilledCount());
+        assertEquals(0, shares());
+    }
+
+    @Test
+    void sellLimitAndBuyStopFireOnTheWayUp() {
+        portfolio.executeBuy("ACME", 5, market);
+        book.place(Order.limit("SELL", "ACME", 5, 110.00));
+        book.place(Order.stop("BUY", "ACME", 3, 105.00));
+        tick(104.99);
+        assertEquals(0, book.getFilledCount());
+        tick(105.00);
+        assertEquals(1, book.getFilledCount());
+        assertEquals(8, shares());
+        tick(112.00);
+        assertEquals(2, book.getFilledCount());
+        assertEquals(3, shares());
+    }
+
+    @Test
+    void ordersThatCannotFillAreRejected() {
+        book.place(Order.limit("SELL", "ACME", 1, 101.00)); // Nothing to sell
+        tick(101.00);
+        assertEquals(0, book.getFilledCount());
+        assertEquals(1, book.getRejectedCount());
+        assertEquals(0, book.getOpenOrderCount());
+    }
+
+    @Test
+    void cancelledOrdersDoNotFire() {
+        long id = book.place(Order.limit("BUY", "ACME", 1, 99.00));
+        assertTrue(book.cancel(id));
+        assertFalse(book.cancel(id));
+        tick(98.00);
+        assertEquals(0, book.getFilledCount());
+        assertEquals(0, shares());
+    }
+
+    @Test
+    void marketOrdersAndUnknownTickersAreRefused() {
+        assertThrows(IllegalArgumentException.class, () -> book.place(Order.buy("ACME", 1)));
+        assertThrows(IllegalArgumentException.class, () -> book.place(Order.limit("BUY", "NOPE", 1, 1.00)));
+    }
+}
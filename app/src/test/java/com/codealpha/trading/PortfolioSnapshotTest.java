@@ -0,0 +1,72 @@
+package com.codealpha.trading;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortfolioSnapshotTest {
+
+    private static PortfolioSnapshot sample() {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        snapshot.cashCents = 9_876_543_21L;
+        snapshot.journalSequence = 1_000_001;
+        snapshot.stocks.put("AAPL", new StockHolding(12, 210_240));
+        snapshot.stocks.put("MSFT", new StockHolding(3, 102_162));
+        TickerStats stats = new TickerStats();
+        Transaction t = new Transaction(0, "BUY", "AAPL", 12, 17_520);
+        t.sequence = 1_000_000;
+        stats.add(t);
+        snapshot.tickers.put("AAPL", stats);
+        return snapshot;
+    }
+
+    @Test
+    void roundTrips() throws IOException {
+        PortfolioSnapshot decoded = PortfolioSnapshot.decode(sample().encode());
+        assertEquals(9_876_543_21L, decoded.cashCents);
+        assertEquals(1_000_001, decoded.journalSequence);
+        assertEquals(2, decoded.stocks.size());
+        assertEquals(12, decoded.stocks.get("AAPL").quantity);
+        assertEquals(210_240, decoded.stocks.get("AAPL").costCents);
+        assertEquals(3, decoded.stocks.get("MSFT").quantity);
+        assertEquals(102_162, decoded.stocks.get("MSFT").costCents);
+        assertEquals(1, decoded.tickers.size());
+        assertEquals(1_000_000, decoded.tickers.get("AAPL").lastSequence);
+        assertEquals(12, decoded.tickers.get("AAPL").volume);
+    }
+
+    @Test
+    void emptySnapshotRoundTrips() throws IOException {
+        PortfolioSnapshot decoded = PortfolioSnapshot.decode(new PortfolioSnapshot().encode());
+        assertEquals(0, decoded.cashCents);
+        assertTrue(decoded.stocks.isEmpty());
+        assertTrue(decoded.tickers.isEmpty());
+    }
+
+    @Test
+    void corruptionIsDetected() {
+        ByteBuffer encoded = sample().encode();
+        encoded.put(40, (byte) (encoded.get(40) ^ 1)); // Inside the first holding
+        IOException e = assertThrows(IOException.class, () -> PortfolioSnapshot.decode(encoded));
+        assertEquals("Snapshot is corrupt", e.getMessage());
+    }
+
+    @Test
+    void truncationIsDetected() {
+        ByteBuffer encoded = sample().encode();
+        encoded.limit(encoded.limit() - 1);
+        assertThrows(IOException.class, () -> PortfolioSnapshot.decode(encoded));
+    }
+
+    @Test
+    void otherFilesAreRejected() {
+        ByteBuffer notASnapshot = ByteBuffer.allocate(64);
+        IOException e = assertThrows(IOException.class, () -> PortfolioSnapshot.decode(notASnapshot));
+        assertEquals("Not a portfolio snapshot", e.getMessage());
+    }
+}
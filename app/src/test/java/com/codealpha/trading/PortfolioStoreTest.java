@@ -0,0 +1,208 @@
+package com.codealpha.trading;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Writes trades through a store on disk, then "crashes" by closing the store
+ * without a final snapshot and checks what a fresh store recovers from the
+ * journal, including after its tail or the snapshot is damaged.
+ */
+class PortfolioStoreTest {
+    private static final long INITIAL_CASH_CENTS = 10_000_000;
+    private static final int HEADER_BYTES = 16; // Journal header
+
+    @TempDir
+    Path dir;
+
+    private final Market market = Market.listing(new String[] {"AAPL", "MSFT"},
+            new String[] {"Apple Inc.", "Microsoft Corp."}, new double[] {100.00, 50.00});
+
+    private PortfolioStore store(PersistenceMode mode) {
+        return new PortfolioStore(snapshotFile().toString(), journalFile().toString(), mode, 5, 64);
+    }
+
+    private Path snapshotFile() {
+        return dir.resolve("portfolio.dat");
+    }
+
+    private Path journalFile() {
+        return dir.resolve("portfolio.tx");
+    }
+
+    // Buys 10 AAPL at $100, sells 4 at $100, buys 3 MSFT at $50
+    private void trade(Portfolio portfolio) {
+        portfolio.executeBuy("AAPL", 10, market);
+        portfolio.executeSell("AAPL", 4, market);
+        portfolio.executeBuy("MSFT", 3, market);
+    }
+
+    private static void assertAfterTwoTrades(Portfolio portfolio) {
+        assertEquals(INITIAL_CASH_CENTS - 1_000_00 + 400_00, portfolio.getCashCents());
+        assertEquals(6, portfolio.getHolding("AAPL").quantity);
+        assertEquals(600_00, portfolio.getHolding("AAPL").costCents);
+        assertNull(portfolio.getHolding("MSFT"));
+    }
+
+    private static void assertAfterThreeTrades(Portfolio portfolio) {
+        assertEquals(INITIAL_CASH_CENTS - 1_000_00 + 400_00 - 150_00, portfolio.getCashCents());
+        assertEquals(6, portfolio.getHolding("AAPL").quantity);
+        assertEquals(600_00, portfolio.getHolding("AAPL").costCents);
+        assertEquals(3, portfolio.getHolding("MSFT").quantity);
+        assertEquals(150_00, portfolio.getHolding("MSFT").costCents);
+    }
+
+    private void writeThreeTrades(PersistenceMode mode) throws IOException {
+        PortfolioStore store = store(mode);
+        trade(new Portfolio(store));
+        store.flush();
+        store.close(); // No final snapshot, as after a crash
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PersistenceMode.class, names = {"SYNC", "GROUP_COMMIT", "WRITE_BEHIND"})
+    void journaledTradesAreRecovered(PersistenceMode mode) throws IOException {
+        writeThreeTrades(mode);
+        assertEquals(HEADER_BYTES + 3 * RecordCodec.TRANSACTION_BYTES, Files.size(journalFile()));
+
+        PortfolioStore store = store(mode);
+        Portfolio portfolio = new Portfolio(store);
+        assertEquals(3, store.getSequence());
+        assertAfterThreeTrades(portfolio);
+        assertEquals(3, portfolio.getTransactions().size());
+        assertEquals(2, portfolio.getTickerStats("AAPL").getTrades());
+        assertEquals(14, portfolio.getTickerStats("AAPL").getVolume());
+        store.close();
+    }
+
+    @Test
+    void syncTradesAreOnDiskWhenTheyReturn() throws IOException {
+        PortfolioStore store = store(PersistenceMode.SYNC);
+        Portfolio portfolio = new Portfolio(store);
+        portfolio.executeBuy("AAPL", 10, market);
+        assertEquals(HEADER_BYTES + RecordCodec.TRANSACTION_BYTES, Files.size(journalFile()));
+        store.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PersistenceMode.class, names = {"SYNC", "GROUP_COMMIT", "WRITE_BEHIND"})
+    void tornRecordAtTheTailIsDropped(PersistenceMode mode) throws IOException {
+        writeThreeTrades(mode);
+        Files.write(journalFile(), new byte[RecordCodec.TRANSACTION_BYTES / 2], StandardOpenOption.APPEND);
+
+        PortfolioStore store = store(mode);
+        Portfolio portfolio = new Portfolio(store);
+        assertEquals(3, store.getSequence());
+        assertAfterThreeTrades(portfolio);
+        assertEquals(HEADER_BYTES + 3 * RecordCodec.TRANSACTION_BYTES, Files.size(journalFile()));
+
+        portfolio.executeSell("MSFT", 3, market); // Appends where the torn record was
+        store.close();
+        assertEquals(4, store(mode).openJournal());
+    }
+
+    @Test
+    void recordFailingItsChecksumIsTruncated() throws IOException {
+        writeThreeTrades(PersistenceMode.SYNC);
+        flipByte(journalFile(), HEADER_BYTES + 2 * RecordCodec.TRANSACTION_BYTES + 20);
+
+        PortfolioStore store = store(PersistenceMode.SYNC);
+        Portfolio portfolio = new Portfolio(store);
+        assertEquals(2, store.getSequence());
+        assertAfterTwoTrades(portfolio);
+        assertEquals(HEADER_BYTES + 2 * RecordCodec.TRANSACTION_BYTES, Files.size(journalFile()));
+        store.close();
+    }
+
+    @Test
+    void journalTailIsReplayedOnTopOfTheSnapshot() throws IOException {
+        PortfolioStore store = store(PersistenceMode.GROUP_COMMIT);
+        Portfolio portfolio = new Portfolio(store);
+        portfolio.executeBuy("AAPL", 10, market);
+        portfolio.executeSell("AAPL", 4, market);
+        portfolio.saveData();
+        portfolio.executeBuy("MSFT", 3, market);
+        store.close();
+
+        store = store(PersistenceMode.GROUP_COMMIT);
+        assertEquals(2, store.readSnapshot().journalSequence);
+        assertAfterThreeTrades(new Portfolio(store));
+        assertEquals(3, store.getSequence());
+        store.close();
+    }
+
+    @Test
+    void corruptSnapshotIsRebuiltFromTheJournal() throws IOException {
+        PortfolioStore store = store(PersistenceMode.SYNC);
+        Portfolio portfolio = new Portfolio(store);
+        trade(portfolio);
+        portfolio.close();
+        flipByte(snapshotFile(), 20); // Cash
+
+        store = store(PersistenceMode.SYNC);
+        assertAfterThreeTrades(new Portfolio(store));
+        store.close();
+    }
+
+    @Test
+    void tradesAreUndoneWhenTheJournalIsClosed() throws IOException {
+        PortfolioStore store = store(PersistenceMode.SYNC);
+        Portfolio portfolio = new Portfolio(store);
+        portfolio.executeBuy("AAPL", 10, market);
+        portfolio.executeSell("AAPL", 4, market);
+        store.close();
+
+        assertThrows(UncheckedIOException.class, () -> portfolio.executeBuy("MSFT", 3, market));
+        assertThrows(UncheckedIOException.class, () -> portfolio.executeSell("AAPL", 6, market));
+        assertAfterTwoTrades(portfolio);
+        assertEquals(600_00, portfolio.getCostBasisCents());
+    }
+
+    @Test
+    void tradesAreUndoneWhenTheCommitFails() {
+        boolean[] failing = {false};
+        PortfolioStore store = new PortfolioStore(snapshotFile().toString(), journalFile().toString(),
+                PersistenceMode.SYNC) {
+            @Override
+            public void awaitCommit(long sequence) throws IOException {
+                if (failing[0]) {
+                    throw new IOException("No space left on device");
+                }
+                super.awaitCommit(sequence);
+            }
+        };
+        Portfolio portfolio = new Portfolio(store);
+        portfolio.executeBuy("AAPL", 10, market);
+        portfolio.executeSell("AAPL", 4, market);
+
+        failing[0] = true;
+        UncheckedIOException e = assertThrows(UncheckedIOException.class,
+                () -> portfolio.executeBuy("MSFT", 3, market));
+        assertEquals("Could not write transaction journal: No space left on device", e.getMessage());
+        assertThrows(UncheckedIOException.class, () -> portfolio.executeSell("AAPL", 6, market));
+        assertAfterTwoTrades(portfolio);
+        assertEquals(600_00, portfolio.getCostBasisCents());
+    }
+
+    private static void flipByte(Path file, long offset) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(offset);
+            int b = raf.read();
+            raf.seek(offset);
+            raf.write(b ^ 1);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.codealpha.trading;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RecordCodecTest {
+
+    private static Transaction sale() {
+        Transaction t = new Transaction(1_704_067_200_123L, "SELL", "GOOGL", 37, 14_088);
+        t.realizedPnlCents = -1_234;
+        t.previous = 41;
+        return t;
+    }
+
+    @Test
+    void transactionRoundTrips() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * RecordCodec.TRANSACTION_BYTES);
+        RecordCodec.putTransaction(buffer, sale());
+        RecordCodec.putTransaction(buffer, new Transaction(5, "BUY", "JPM", 1, 15_012));
+        assertEquals(2 * RecordCodec.TRANSACTION_BYTES, buffer.position());
+
+        buffer.flip();
+        Transaction t = RecordCodec.getTransaction(buffer);
+        assertNotNull(t);
+        assertEquals(1_704_067_200_123L, t.timestamp);
+        assertEquals("SELL", t.type);
+        assertEquals("GOOGL", t.ticker);
+        assertEquals(37, t.quantity);
+        assertEquals(14_088, t.priceCents);
+        assertEquals(37 * 14_088, t.totalCents);
+        assertEquals(-1_234, t.realizedPnlCents);
+        assertEquals(41, t.previous);
+
+        Transaction next = RecordCodec.getTransaction(buffer);
+        assertNotNull(next);
+        assertEquals("BUY", next.type);
+        assertEquals("JPM", next.ticker);
+        assertEquals(-1, next.previous);
+        assertEquals(2 * RecordCodec.TRANSACTION_BYTES, buffer.position());
+    }
+
+    @Test
+    void longestTickerRoundTrips() {
+        String ticker = "ABCDEFGHIJKLM";
+        assertEquals(RecordCodec.MAX_TICKER_LENGTH, ticker.length());
+        ByteBuffer buffer = ByteBuffer.allocate(RecordCodec.TRANSACTION_BYTES);
+        RecordCodec.putTransaction(buffer, new Transaction(0, "BUY", ticker, 1, 1));
+        buffer.flip();
+        assertEquals(ticker, RecordCodec.getTransaction(buffer).ticker);
+    }
+
+    @Test
+    void corruptTransactionIsRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(RecordCodec.TRANSACTION_BYTES);
+        RecordCodec.putTransaction(buffer, sale());
+        buffer.flip();
+        buffer.put(20, (byte) (buffer.get(20) ^ 1)); // Flip a bit of the price
+        assertNull(RecordCodec.getTransaction(buffer));
+        assertEquals(RecordCodec.TRANSACTION_BYTES, buffer.position()); // Still skips the record
+    }
+
+    @Test
+    void holdingRoundTrips() {
+        ByteBuffer buffer = ByteBuffer.allocate(RecordCodec.HOLDING_BYTES);
+        RecordCodec.putHolding(buffer, "NVDA", new StockHolding(Integer.MAX_VALUE, Long.MAX_VALUE - 7));
+        assertEquals(RecordCodec.HOLDING_BYTES, buffer.position());
+        buffer.flip();
+        Map<String, StockHolding> holdings = new HashMap<>();
+        RecordCodec.getHolding(buffer, holdings);
+        StockHolding holding = holdings.get("NVDA");
+        assertEquals(Integer.MAX_VALUE, holding.quantity);
+        assertEquals(Long.MAX_VALUE - 7, holding.costCents);
+    }
+
+    @Test
+    void tickerStatsRoundTrip() {
+        TickerStats stats = new TickerStats();
+        Transaction buy = new Transaction(0, "BUY", "AAPL", 10, 17_520);
+        buy.sequence = 3;
+        stats.add(buy);
+        Transaction sell = new Transaction(1, "SELL", "AAPL", 4, 18_000);
+        sell.sequence = 9;
+        sell.realizedPnlCents = 1_920;
+        stats.add(sell);
+
+        ByteBuffer buffer = ByteBuffer.allocate(RecordCodec.TICKER_STATS_BYTES);
+        RecordCodec.putTickerStats(buffer, "AAPL", stats);
+        buffer.flip();
+        Map<String, TickerStats> decoded = new HashMap<>();
+        RecordCodec.getTickerStats(buffer, decoded);
+        TickerStats s = decoded.get("AAPL");
+        assertEquals(2, s.trades);
+        assertEquals(14, s.volume);
+        assertEquals(175_200 + 72_000, s.notionalCents);
+        assertEquals(1_920, s.realizedPnlCents);
+        assertEquals(9, s.lastSequence);
+    }
+}
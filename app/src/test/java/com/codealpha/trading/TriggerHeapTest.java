@@ -0,0 +1,43 @@
+package com.codealpha.trading;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TriggerHeapTest {
+
+    @Test
+    void popsLowestKeyFirst() {
+        TriggerHeap heap = new TriggerHeap();
+        long[] keys = {500, -20, 130, 7, 999, 0, 42, 42, -300, 18, 61, 250, 3, 77, 1, 64, 88, 5};
+        for (int i = 0; i < keys.length; i++) {
+            heap.add(keys[i], i);
+        }
+        assertEquals(keys.length, heap.size());
+        long previous = Long.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            assertTrue(heap.peekKey() >= previous);
+            previous = heap.peekKey();
+            heap.removeTop();
+        }
+    }
+
+    @Test
+    void equalKeysPopInOrderOfId() {
+        TriggerHeap heap = new TriggerHeap();
+        heap.add(100, 9);
+        heap.add(100, 3);
+        heap.add(50, 7);
+        heap.add(100, 5);
+        assertEquals(7, heap.peekId());
+        heap.removeTop();
+        assertEquals(3, heap.peekId());
+        heap.removeTop();
+        assertEquals(5, heap.peekId());
+        heap.removeTop();
+        assertEquals(9, heap.peekId());
+        heap.removeTop();
+        assertTrue(heap.isEmpty());
+    }
+}
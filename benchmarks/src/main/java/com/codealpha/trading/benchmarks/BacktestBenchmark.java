@@ -0,0 +1,50 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Backtest;
+import com.codealpha.trading.Strategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded backtest speed in market ticks per second, each tick
+ * moving every default listing and revaluing the portfolio.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BacktestBenchmark {
+    private static final int TICKS = 100_000;
+
+    @Param({"hold", "momentum"})
+    public String strategy;
+
+    private Backtest backtest;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        backtest = new Backtest(Strategies.named(strategy), 100000, 1000);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public Backtest.Result run() throws IOException {
+        return backtest.run(seed++, 0, TICKS, null);
+    }
+}
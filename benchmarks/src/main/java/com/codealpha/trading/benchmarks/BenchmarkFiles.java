@@ -0,0 +1,92 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.PersistenceMode;
+import com.codealpha.trading.PortfolioStore;
+import com.codealpha.trading.Transaction;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Scratch-directory helpers shared by the benchmarks.
+ */
+final class BenchmarkFiles {
+    private static final PrintStream NULL_OUT = new PrintStream(OutputStream.nullOutputStream());
+
+    private BenchmarkFiles() {
+    }
+
+    /**
+     * Writes a JSON portfolio with the given cash and one-share-per-ticker
+     * holdings for a benchmark portfolio to import, so it can start from a
+     * large or well-funded account.
+     */
+    static void writePortfolioJson(Path file, double cash, Map<String, Double> holdings) throws IOException {
+        JsonObject stocks = new JsonObject();
+        for (Map.Entry<String, Double> entry : holdings.entrySet()) {
+            JsonObject holding = new JsonObject();
+            holding.addProperty("quantity", 1);
+            holding.addProperty("avgPrice", entry.getValue());
+            stocks.add(entry.getKey(), holding);
+        }
+        JsonObject snapshot = new JsonObject();
+        snapshot.addProperty("cash", cash);
+        snapshot.add("stocks", stocks);
+        Files.writeString(file, new Gson().toJson(snapshot), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Journals {@code count} alternating one-share buys and sells, cycling
+     * through {@code tickers}, one second apart.
+     */
+    static void writeHistory(String snapshotFile, String journalFile, int count, String[] tickers)
+            throws IOException {
+        PortfolioStore store = new PortfolioStore(snapshotFile, journalFile, PersistenceMode.SYNC, 5, 64);
+        store.openJournal();
+        List<Transaction> records = new ArrayList<>(4096);
+        long timestamp = 1735723800000L; // 2025-01-01 09:30 UTC
+        for (int i = 0; i < count; i++) {
+            String ticker = tickers[i % tickers.length];
+            boolean buy = (i / tickers.length & 1) == 0;
+            records.add(new Transaction(timestamp + i * 1000L, buy ? "BUY" : "SELL", ticker, 1, 17520));
+            if (records.size() == 4096) {
+                store.append(records);
+                records.clear();
+            }
+        }
+        store.append(records);
+        store.close();
+    }
+
+    /**
+     * Silences the portfolio's console messages for the duration of a trial.
+     * JMH reports results over its own channel, so this does not hide them.
+     */
+    static PrintStream muteConsole() {
+        PrintStream original = System.out;
+        System.setOut(NULL_OUT);
+        return original;
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Market;
+import com.codealpha.trading.PersistenceMode;
+import com.codealpha.trading.Portfolio;
+import com.codealpha.trading.PortfolioStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures order throughput against one shared {@link Portfolio} as the number
+ * of trading threads grows. Each thread sends random one-share buys and sells
+ * across a synthetic universe while the market ticks about once a millisecond.
+ *
+ * <p>Usage: {@code java -cp benchmarks/target/benchmarks.jar
+ * com.codealpha.trading.benchmarks.ContentionBenchmark [secondsPerRun] [maxThreads] [tickers]}
+ */
+public class ContentionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+        int tickers = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+
+        Market market = Market.synthetic(tickers, 42);
+        Path dir = Files.createTempDirectory("portfolio-contention");
+        run(market, dir, 1, seconds); // Warm-up so the first measured run is not dominated by JIT compilation
+        System.out.printf("%8s | %14s | %8s%n", "Threads", "Orders/sec", "Scaling");
+
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double throughput = run(market, dir, threads, seconds);
+            if (baseline == 0) {
+                baseline = throughput;
+            }
+            System.out.printf("%8d | %,14.0f | %7.2fx%n", threads, throughput, throughput / baseline);
+        }
+    }
+
+    private static double run(Market market, Path dir, int threads, int seconds)
+            throws IOException, InterruptedException {
+        String name = "bench-" + threads + "-" + System.nanoTime();
+        PortfolioStore store = new PortfolioStore(dir.resolve(name + ".dat").toString(),
+                dir.resolve(name + ".tx").toString(), PersistenceMode.WRITE_BEHIND, 5, 4096);
+        Portfolio portfolio = new Portfolio(store);
+        portfolio.attach(market);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder orders = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom random = new SplittableRandom(1000 + i);
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (running.get()) {
+                    String ticker = market.getTicker(random.nextInt(market.size()));
+                    if (random.nextBoolean()) {
+                        portfolio.executeBuy(ticker, 1, market);
+                    } else {
+                        portfolio.executeSell(ticker, 1, market);
+                    }
+                    orders.increment();
+                }
+            }, "trader-" + i);
+            workers[i].start();
+        }
+
+        Thread ticker = new Thread(() -> {
+            while (running.get()) {
+                market.updateMarket();
+                try {
+                    Thread.sleep(1); // Roughly 1k ticks/sec alongside the traders
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "ticker");
+
+        long begin = System.nanoTime();
+        start.countDown();
+        ticker.start();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        ticker.join();
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+
+        portfolio.close();
+        return orders.sum() / elapsed;
+    }
+}
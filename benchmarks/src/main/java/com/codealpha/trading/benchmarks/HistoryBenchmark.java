@@ -0,0 +1,90 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.PersistenceMode;
+import com.codealpha.trading.Portfolio;
+import com.codealpha.trading.PortfolioStore;
+import com.codealpha.trading.TransactionPage;
+import com.codealpha.trading.TransactionQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction history queries as the journal grows: the latest trades of one
+ * ticker, the latest trades overall and a one-hour time range.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class HistoryBenchmark {
+    private static final String[] TICKERS = new String[100];
+
+    static {
+        for (int i = 0; i < TICKERS.length; i++) {
+            TICKERS[i] = String.format("T%03d", i);
+        }
+    }
+
+    @Param({"10000", "1000000"})
+    public int history;
+
+    private Path dir;
+    private Portfolio portfolio;
+    private TransactionQuery oneTicker;
+    private TransactionQuery oneHour;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() throws IOException {
+        console = BenchmarkFiles.muteConsole();
+        dir = Files.createTempDirectory("portfolio-bench");
+        String snapshotFile = dir.resolve("portfolio.dat").toString();
+        String journalFile = dir.resolve("portfolio.tx").toString();
+        BenchmarkFiles.writeHistory(snapshotFile, journalFile, history, TICKERS);
+        portfolio = new Portfolio(new PortfolioStore(snapshotFile, journalFile, PersistenceMode.SYNC, 5, 64));
+
+        oneTicker = TransactionQuery.ALL.withTicker("T042");
+        long middle = 1735723800000L + history / 2 * 1000L;
+        oneHour = TransactionQuery.ALL.between(middle, middle + 3_600_000L);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        portfolio.close();
+        BenchmarkFiles.deleteRecursively(dir);
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public TransactionPage last50ForTicker() {
+        return portfolio.queryTransactions(oneTicker, TransactionPage.FIRST, 50);
+    }
+
+    @Benchmark
+    public TransactionPage last50() {
+        return portfolio.queryTransactions(TransactionQuery.ALL, TransactionPage.FIRST, 50);
+    }
+
+    @Benchmark
+    public TransactionPage firstPageOfHourRange() {
+        return portfolio.queryTransactions(oneHour, TransactionPage.FIRST, 50);
+    }
+}
@@ -0,0 +1,100 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Market;
+import com.codealpha.trading.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Market tick, ticker lookup, prefix search and top movers costs across
+ * universe sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class MarketBenchmark {
+
+    @Param({"8", "1000", "10000", "100000"})
+    public int universe;
+
+    private Market market;
+    private String[] lookups;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        market = Market.synthetic(universe, 42);
+        // Mix of exact and lower-case tickers, as typed by a user
+        lookups = new String[1024];
+        for (int i = 0; i < lookups.length; i++) {
+            String ticker = market.getTicker((int) ((i * 2654435761L) % universe));
+            lookups[i] = (i & 1) == 0 ? ticker : ticker.toLowerCase();
+        }
+        prefixes = new String[lookups.length];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = lookups[i].substring(0, Math.min(4, lookups[i].length()));
+        }
+    }
+
+    @Benchmark
+    public void updateMarket() {
+        market.updateMarket();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Stock getStock() {
+        next = (next + 1) & (lookups.length - 1);
+        return market.getStock(lookups[next]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int[] searchTickers() {
+        next = (next + 1) & (prefixes.length - 1);
+        return market.searchTickers(prefixes[next], 25);
+    }
+
+    /**
+     * A tick followed by the first top-movers request of that tick, which
+     * copies the quotes and selects with a bounded heap; compare with
+     * {@link #updateMarket}.
+     */
+    @Benchmark
+    public int[] topMoversAfterTick() {
+        market.updateMarket();
+        return market.getQuotes().topMovers(10, true);
+    }
+
+    /**
+     * Baseline for {@link #topMoversAfterTick}: sorting the whole universe by
+     * price change.
+     */
+    @Benchmark
+    public Integer[] sortedMoversAfterTick() {
+        market.updateMarket();
+        Integer[] ids = new Integer[market.size()];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = id;
+        }
+        Arrays.sort(ids, Comparator.comparingDouble((Integer id) -> market.getStock(id).getPriceChange()).reversed());
+        return Arrays.copyOf(ids, Math.min(10, ids.length));
+    }
+}
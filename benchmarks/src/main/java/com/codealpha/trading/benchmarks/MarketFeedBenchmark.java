@@ -0,0 +1,66 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Market;
+import com.codealpha.trading.MarketFeed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tick cost with the feed fanning out to subscribers that each take a
+ * millisecond per tick, far slower than the market. The producer should not
+ * slow down as subscribers are added; they drop or conflate instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class MarketFeedBenchmark {
+
+    @Param({"0", "1", "4"})
+    public int subscribers;
+
+    @Param({"1000", "10000"})
+    public int universe;
+
+    private Market market;
+    private MarketFeed feed;
+
+    @Setup
+    public void setUp() {
+        market = Market.synthetic(universe, 42);
+        feed = new MarketFeed(market);
+        for (int i = 0; i < subscribers; i++) {
+            feed.subscribe("slow-" + i, snapshot -> LockSupport.parkNanos(1_000_000), (i & 1) == 0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        List<MarketFeed.Subscription> subscriptions = feed.getSubscriptions();
+        feed.stop();
+        for (MarketFeed.Subscription subscription : subscriptions) {
+            System.out.println(subscription);
+        }
+    }
+
+    @Benchmark
+    public void updateMarket() {
+        market.updateMarket();
+    }
+}
@@ -0,0 +1,101 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.LatencyHistogram;
+import com.codealpha.trading.Market;
+import com.codealpha.trading.Metrics;
+import com.codealpha.trading.Portfolio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics instrumentation: an in-memory buy and sell round trip
+ * and a valuation with metrics disabled and enabled (each in its own fork,
+ * since the switch is fixed at startup), and a bare histogram record.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private static final String DISABLED = "-Dmetrics.enabled=false";
+    private static final String ENABLED = "-Dmetrics.enabled=true";
+
+    private Market market;
+    private Portfolio portfolio;
+    private LatencyHistogram histogram;
+    private long value;
+
+    @Setup
+    public void setUp() {
+        market = Market.synthetic(100, 42);
+        portfolio = Portfolio.inMemory(1e9, System::currentTimeMillis);
+        portfolio.attach(market);
+        for (int id = 0; id < 10; id++) {
+            portfolio.executeBuy(market.getTicker(id), 10, market);
+        }
+        histogram = new LatencyHistogram("bench");
+    }
+
+    @TearDown
+    public void tearDown() {
+        portfolio.close();
+    }
+
+    private long roundTrip() {
+        String ticker = market.getTicker(0);
+        portfolio.executeBuy(ticker, 1, market);
+        return portfolio.executeSell(ticker, 1, market).totalCents;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = DISABLED)
+    public long tradeDisabled() {
+        return roundTrip();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLED)
+    public long tradeEnabled() {
+        return roundTrip();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = DISABLED)
+    public long valuationDisabled() {
+        return portfolio.getTotalValueCents(market);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLED)
+    public long valuationEnabled() {
+        return portfolio.getTotalValueCents(market);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLED)
+    public void recordLatency() {
+        histogram.record(Metrics.start());
+    }
+
+    /**
+     * Baseline for {@link #recordLatency}: the two clock reads alone.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLED)
+    public long clockOnly() {
+        value += System.nanoTime() - System.nanoTime();
+        return value;
+    }
+}
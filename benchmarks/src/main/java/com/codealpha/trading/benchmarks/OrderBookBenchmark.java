@@ -0,0 +1,81 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Market;
+import com.codealpha.trading.Order;
+import com.codealpha.trading.OrderBook;
+import com.codealpha.trading.PersistenceMode;
+import com.codealpha.trading.Portfolio;
+import com.codealpha.trading.PortfolioStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick cost with many limit orders resting far from the market, which should
+ * stay flat as the book grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class OrderBookBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int resting;
+
+    private Market market;
+    private Portfolio portfolio;
+    private OrderBook book;
+    private Path dir;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() throws IOException {
+        console = BenchmarkFiles.muteConsole();
+        market = Market.synthetic(1000, 42);
+        dir = Files.createTempDirectory("orderbook-bench");
+        Path seed = dir.resolve("seed.json");
+        BenchmarkFiles.writePortfolioJson(seed, 100000, Map.of());
+        portfolio = new Portfolio(new PortfolioStore(dir.resolve("portfolio.dat").toString(),
+                dir.resolve("portfolio.tx").toString(), PersistenceMode.WRITE_BEHIND, 5, 64), seed, null);
+        portfolio.attach(market);
+        book = new OrderBook(market, portfolio);
+        for (int i = 0; i < resting; i++) {
+            int stockId = i % market.size();
+            double price = market.getPrice(stockId);
+            book.place((i & 1) == 0
+                    ? Order.limit("BUY", market.getTicker(stockId), 1, 0.01)
+                    : Order.limit("SELL", market.getTicker(stockId), 1, price * 1000));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        portfolio.close();
+        BenchmarkFiles.deleteRecursively(dir);
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public void updateMarket() {
+        market.updateMarket();
+    }
+}
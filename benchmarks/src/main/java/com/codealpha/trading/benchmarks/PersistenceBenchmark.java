@@ -0,0 +1,92 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.PersistenceMode;
+import com.codealpha.trading.Portfolio;
+import com.codealpha.trading.PortfolioStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot save and startup load cost as the transaction history grows.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int history;
+
+    private Path dir;
+    private String snapshotFile;
+    private String journalFile;
+    private Portfolio portfolio;
+    private Portfolio loaded;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        console = BenchmarkFiles.muteConsole();
+        dir = Files.createTempDirectory("portfolio-bench");
+        snapshotFile = dir.resolve("portfolio.dat").toString();
+        journalFile = dir.resolve("portfolio.tx").toString();
+
+        BenchmarkFiles.writeHistory(snapshotFile, journalFile, history, new String[] {"AAPL"});
+
+        // Load once so the snapshot covers the whole journal, as after a clean exit
+        portfolio = openPortfolio();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        portfolio.close();
+        BenchmarkFiles.deleteRecursively(dir);
+        System.setOut(console);
+    }
+
+    private Portfolio openPortfolio() {
+        return new Portfolio(new PortfolioStore(snapshotFile, journalFile, PersistenceMode.SYNC, 5, 64));
+    }
+
+    @Benchmark
+    public void saveData() {
+        portfolio.saveData();
+    }
+
+    /**
+     * Startup: read the snapshot, open the journal and replay its tail.
+     */
+    @Benchmark
+    public Portfolio loadData() {
+        loaded = openPortfolio();
+        return loaded;
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeLoaded() {
+        if (loaded != null) {
+            loaded.close();
+            loaded = null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Market;
+import com.codealpha.trading.PersistenceMode;
+import com.codealpha.trading.Portfolio;
+import com.codealpha.trading.PortfolioStore;
+import com.codealpha.trading.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trade execution throughput per persistence mode, and portfolio valuation
+ * cost as the number of positions grows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PortfolioBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Trading {
+        @Param({"SYNC", "GROUP_COMMIT", "WRITE_BEHIND"})
+        public PersistenceMode mode;
+
+        Market market;
+        Portfolio portfolio;
+        String[] tickers;
+        int next;
+        private Path dir;
+        private PrintStream console;
+
+        @Setup
+        public void setUp() throws IOException {
+            console = BenchmarkFiles.muteConsole();
+            market = Market.synthetic(1000, 42);
+            tickers = new String[64];
+            for (int i = 0; i < tickers.length; i++) {
+                tickers[i] = market.getTicker(i * 7);
+            }
+            dir = Files.createTempDirectory("portfolio-bench");
+            Path seed = dir.resolve("seed.json");
+            BenchmarkFiles.writePortfolioJson(seed, 1e12, Map.of());
+            portfolio = new Portfolio(new PortfolioStore(dir.resolve("portfolio.dat").toString(),
+                    dir.resolve("portfolio.tx").toString(), mode, 5, 64), seed, null);
+            portfolio.attach(market);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            portfolio.close();
+            BenchmarkFiles.deleteRecursively(dir);
+            System.setOut(console);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Valuation {
+        @Param({"10", "1000", "10000"})
+        public int positions;
+
+        Market market;
+        Portfolio portfolio;
+        private Path dir;
+        private PrintStream console;
+
+        @Setup
+        public void setUp() throws IOException {
+            console = BenchmarkFiles.muteConsole();
+            market = Market.synthetic(Math.max(positions, 1000), 42);
+            Map<String, Double> holdings = new LinkedHashMap<>();
+            for (int i = 0; i < positions; i++) {
+                holdings.put(market.getTicker(i), market.getPrice(i));
+            }
+            dir = Files.createTempDirectory("portfolio-bench");
+            Path seed = dir.resolve("seed.json");
+            BenchmarkFiles.writePortfolioJson(seed, 100000, holdings);
+            portfolio = new Portfolio(new PortfolioStore(dir.resolve("portfolio.dat").toString(),
+                    dir.resolve("portfolio.tx").toString(), PersistenceMode.WRITE_BEHIND, 5, 64), seed, null);
+            portfolio.attach(market);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            portfolio.close();
+            BenchmarkFiles.deleteRecursively(dir);
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * One buy followed by one sell of a single share, so cash and holdings
+     * stay level however long the benchmark runs.
+     */
+    @Benchmark
+    public Transaction buyThenSell(Trading state) {
+        String ticker = state.tickers[state.next++ & (state.tickers.length - 1)];
+        state.portfolio.executeBuy(ticker, 1, state.market);
+        return state.portfolio.executeSell(ticker, 1, state.market);
+    }
+
+    @Benchmark
+    public double getTotalValue(Valuation state) {
+        return state.portfolio.getTotalValue(state.market);
+    }
+
+    /**
+     * A market tick, including revaluing every held position.
+     */
+    @Benchmark
+    public void tickWithValuation(Valuation state) {
+        state.market.updateMarket();
+    }
+}
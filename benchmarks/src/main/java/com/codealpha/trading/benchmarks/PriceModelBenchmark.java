@@ -0,0 +1,48 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Market;
+import com.codealpha.trading.PriceModels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one market tick under each built-in price model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PriceModelBenchmark {
+
+    @Param({"uniform", "gbm", "meanrevert", "jump"})
+    public String model;
+
+    @Param({"1000", "100000"})
+    public int universe;
+
+    private Market market;
+
+    @Setup
+    public void setUp() {
+        market = Market.synthetic(universe, 42);
+        market.setPriceModel(PriceModels.named(model).get());
+    }
+
+    @Benchmark
+    public void updateMarket() {
+        market.updateMarket();
+    }
+}
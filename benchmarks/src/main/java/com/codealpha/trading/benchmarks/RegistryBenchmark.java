@@ -0,0 +1,105 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Market;
+import com.codealpha.trading.PersistenceMode;
+import com.codealpha.trading.PortfolioRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account access through a {@link PortfolioRegistry} when most accesses miss
+ * the open set and load an account from disk, evicting another. The tear-down
+ * compares the registry's footprint estimate with the heap actually retained
+ * by a full set of open accounts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class RegistryBenchmark {
+
+    @Param({"1000", "10000"})
+    public int accounts;
+
+    @Param({"64", "512"})
+    public int capacity;
+
+    private Path dir;
+    private Market market;
+    private PortfolioRegistry registry;
+    private PrintStream console;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        console = BenchmarkFiles.muteConsole();
+        dir = Files.createTempDirectory("registry-bench");
+        market = new Market();
+        registry = new PortfolioRegistry(market, dir, 16, capacity, PersistenceMode.SYNC);
+        for (int i = 0; i < accounts; i++) {
+            String id = "acct-" + i;
+            registry.withAccount(id, portfolio -> {
+                portfolio.buyStock("AAPL", 1, market);
+                return null;
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        String stats = registry.toString();
+        registry.close();
+
+        // Reopen into a fresh registry to see what a full open set retains
+        long before = usedHeap();
+        PortfolioRegistry fresh = new PortfolioRegistry(market, dir, 16, capacity, PersistenceMode.SYNC);
+        for (int i = 0; i < capacity; i++) {
+            fresh.withAccount("acct-" + i, portfolio -> null);
+        }
+        long measured = (usedHeap() - before) / capacity;
+        String estimate = fresh.toString();
+        fresh.close();
+
+        System.setOut(console);
+        System.out.printf("%n%s%n%s%nmeasured ~%,d bytes per open account%n", stats, estimate, measured);
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Touches accounts round-robin, so with {@code accounts > capacity} every
+     * access loads one account and evicts another.
+     */
+    @Benchmark
+    public long acquire() {
+        String id = "acct-" + next;
+        next = (next + 1) % accounts;
+        return registry.withAccount(id, portfolio -> portfolio.getCashCents());
+    }
+}
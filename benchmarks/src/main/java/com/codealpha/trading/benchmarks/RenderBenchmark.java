@@ -0,0 +1,92 @@
+package com.codealpha.trading.benchmarks;
+
+import com.codealpha.trading.Market;
+import com.codealpha.trading.Screen;
+import com.codealpha.trading.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of drawing the market table: one page through a reused
+ * {@link Screen}, printed whole or redrawn over the previous tick, against
+ * the {@code printf} per row it replaced. Output goes to a discarding
+ * stream, so this measures formatting and encoding, not the terminal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+    @Param({"25", "1000"})
+    public int rows;
+
+    private Market market;
+    private Screen screen;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        market = Market.synthetic(Math.max(rows, 100), 42);
+        screen = new Screen();
+        console = BenchmarkFiles.muteConsole();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public void screenPrint() {
+        market.renderMarket(screen.begin().text(Screen.CLEAR), 0, rows);
+        screen.print();
+    }
+
+    /**
+     * A live view's redraw after a tick, which rewrites only the rows whose
+     * prices moved.
+     */
+    @Benchmark
+    public void screenRedraw() {
+        market.updateMarket();
+        market.renderMarket(screen.begin().text(Screen.CLEAR), 0, rows);
+        screen.redraw();
+    }
+
+    /**
+     * Baseline: the table as it was printed before, one {@code printf} and
+     * several formatted strings per row.
+     */
+    @Benchmark
+    public void printf() {
+        PrintStream out = System.out;
+        out.print(Screen.CLEAR);
+        out.println("\n--- Live Stock Market ---");
+        out.println("----------------------------------------------------------------");
+        out.printf("%-10s | %-25s | %12s | %12s%n", "Ticker", "Company Name", "Price", "Change");
+        out.println("----------------------------------------------------------------");
+        for (int id = 0; id < rows; id++) {
+            Stock stock = market.getStock(id);
+            double change = stock.getPriceChange();
+            String changeStr = String.format("$%,.2f %s", Math.abs(change), change >= 0 ? "▲" : "▼");
+            out.printf("%-10s | %-25s | %12s | %s%n", stock.ticker, stock.name,
+                    String.format("$%,.2f", stock.getPrice()), changeStr);
+        }
+        out.println("----------------------------------------------------------------");
+    }
+}